@@ -0,0 +1,67 @@
+package com.example.currency_rates.benchmark;
+
+import com.example.currency_rates.client.CbrRatesParser;
+import com.example.currency_rates.client.CurrencyClient;
+import com.example.currency_rates.client.RateSnapshot;
+import com.example.currency_rates.dto.Event;
+import com.example.currency_rates.services.ConversionMode;
+import com.example.currency_rates.services.CurrencyService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+final class BenchmarkFixtures {
+
+    static final String[] PRICES = {
+            "", "бесплатно", "500", "500 рублей", "от 300 до 700 рублей", "1 500 рублей",
+            "от 1 000 до 3 500", "350,50 руб.", "500–1500 руб.", "вход свободный, по предварительной регистрации",
+            "билеты от 2 500 рублей", "12 000 — 45 000 рублей", "уточняйте на сайте", "до 990 рублей",
+    };
+
+    private BenchmarkFixtures() {
+    }
+
+    /** Выгрузка ЦБ за 02.10.2024: 43 валюты в исходном формате XML_daily.asp. */
+    static byte[] cbrDailyXml() {
+        try (InputStream in = BenchmarkFixtures.class.getResourceAsStream("/cbr-daily.xml")) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static RateSnapshot snapshot() {
+        try {
+            return new CbrRatesParser().parse(new ByteArrayInputStream(cbrDailyXml()));
+        } catch (Exception e) {
+            throw new IllegalStateException("Cannot parse benchmark rates", e);
+        }
+    }
+
+    static CurrencyService currencyService(RateSnapshot snapshot, ConversionMode mode) {
+        CurrencyClient client = new CurrencyClient(null, null, null, null, null, null) {
+            @Override
+            public RateSnapshot getCurrencies() {
+                return snapshot;
+            }
+        };
+        return new CurrencyService(client, null, new ObjectMapper(), mode, null);
+    }
+
+    static List<Event> events(int count, long seed) {
+        Random random = new Random(seed);
+        List<Event> events = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            boolean free = random.nextInt(10) == 0;
+            String price = free ? "" : String.valueOf(100 + random.nextInt(10_000));
+            events.add(new Event(i, "Event " + i, free, price));
+        }
+        return events;
+    }
+}
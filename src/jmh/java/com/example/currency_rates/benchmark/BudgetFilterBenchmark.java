@@ -0,0 +1,54 @@
+package com.example.currency_rates.benchmark;
+
+import com.example.currency_rates.dto.Event;
+import com.example.currency_rates.services.EventPriceIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Фильтр по бюджету: линейный проход, как в ReactiveEventService, против запроса к EventPriceIndex.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BudgetFilterBenchmark {
+
+    @Param({"100", "10000", "1000000"})
+    public int size;
+
+    @Param({"3000"})
+    public double budget;
+
+    private List<Event> events;
+    private EventPriceIndex index;
+
+    @Setup
+    public void setUp() {
+        events = BenchmarkFixtures.events(size, 42);
+        index = EventPriceIndex.of(events);
+    }
+
+    @Benchmark
+    public List<Event> linearScan() {
+        List<Event> filtered = new ArrayList<>();
+        for (Event event : events) {
+            if (event.fitsBudget(budget)) {
+                filtered.add(event);
+            }
+        }
+        return filtered;
+    }
+
+    @Benchmark
+    public int priceIndex() {
+        return index.withinBudget(budget).size();
+    }
+
+    @Benchmark
+    public EventPriceIndex buildIndex() {
+        return EventPriceIndex.of(events);
+    }
+}
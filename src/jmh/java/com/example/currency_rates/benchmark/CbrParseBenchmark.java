@@ -0,0 +1,28 @@
+package com.example.currency_rates.benchmark;
+
+import com.example.currency_rates.client.CbrRatesParser;
+import com.example.currency_rates.client.RateSnapshot;
+import org.openjdk.jmh.annotations.*;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CbrParseBenchmark {
+
+    private final CbrRatesParser parser = new CbrRatesParser();
+    private byte[] payload;
+
+    @Setup
+    public void setUp() {
+        payload = BenchmarkFixtures.cbrDailyXml();
+    }
+
+    @Benchmark
+    public RateSnapshot parseDaily() throws XMLStreamException {
+        return parser.parse(new ByteArrayInputStream(payload));
+    }
+}
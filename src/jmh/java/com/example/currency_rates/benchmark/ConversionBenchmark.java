@@ -0,0 +1,47 @@
+package com.example.currency_rates.benchmark;
+
+import com.example.currency_rates.dto.ConvertCurrencyRequest;
+import com.example.currency_rates.dto.ConvertCurrencyResponse;
+import com.example.currency_rates.services.ConversionMode;
+import com.example.currency_rates.services.CurrencyService;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ConversionBenchmark {
+
+    @Param({"EXACT", "MATRIX", "MATRIX_LONG", "FIXED_POINT"})
+    public ConversionMode mode;
+
+    private CurrencyService currencyService;
+    private ConvertCurrencyRequest rubToForeign;
+    private ConvertCurrencyRequest foreignToRub;
+    private ConvertCurrencyRequest crossRate;
+
+    @Setup
+    public void setUp() {
+        currencyService = BenchmarkFixtures.currencyService(BenchmarkFixtures.snapshot(), mode);
+        rubToForeign = new ConvertCurrencyRequest("RUB", "USD", new BigDecimal("12345.67"));
+        foreignToRub = new ConvertCurrencyRequest("JPY", "RUB", new BigDecimal("12345.67"));
+        crossRate = new ConvertCurrencyRequest("USD", "EUR", new BigDecimal("12345.67"));
+    }
+
+    @Benchmark
+    public ConvertCurrencyResponse rubToForeign() {
+        return currencyService.convertCurrency(rubToForeign);
+    }
+
+    @Benchmark
+    public ConvertCurrencyResponse foreignToRub() {
+        return currencyService.convertCurrency(foreignToRub);
+    }
+
+    @Benchmark
+    public ConvertCurrencyResponse crossRate() {
+        return currencyService.convertCurrency(crossRate);
+    }
+}
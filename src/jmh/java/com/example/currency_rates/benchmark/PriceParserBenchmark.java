@@ -0,0 +1,21 @@
+package com.example.currency_rates.benchmark;
+
+import com.example.currency_rates.util.PriceParser;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PriceParserBenchmark {
+
+    @Benchmark
+    @OperationsPerInvocation(14)
+    public void parseCorpus(Blackhole blackhole) {
+        for (String price : BenchmarkFixtures.PRICES) {
+            blackhole.consume(PriceParser.parse(price));
+        }
+    }
+}
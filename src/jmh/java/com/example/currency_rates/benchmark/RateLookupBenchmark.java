@@ -0,0 +1,46 @@
+package com.example.currency_rates.benchmark;
+
+import com.example.currency_rates.client.RateSnapshot;
+import com.example.currency_rates.dto.CurrencyRateResponse;
+import com.example.currency_rates.services.ConversionMode;
+import com.example.currency_rates.services.CurrencyService;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Поиск курса по коду в снимке из 43 валют ЦБ: сам снимок, сервис и готовое JSON-тело.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RateLookupBenchmark {
+
+    @Param({"USD", "JPY", "ZAR"})
+    public String code;
+
+    private RateSnapshot snapshot;
+    private CurrencyService currencyService;
+
+    @Setup
+    public void setUp() {
+        snapshot = BenchmarkFixtures.snapshot();
+        currencyService = BenchmarkFixtures.currencyService(snapshot, ConversionMode.EXACT);
+    }
+
+    @Benchmark
+    public BigDecimal snapshotLookup() {
+        return snapshot.getRate(code);
+    }
+
+    @Benchmark
+    public CurrencyRateResponse currencyRate() {
+        return currencyService.getCurrencyRate(code);
+    }
+
+    @Benchmark
+    public byte[] currencyRateJson() {
+        return currencyService.getCurrencyRateJson(code);
+    }
+}
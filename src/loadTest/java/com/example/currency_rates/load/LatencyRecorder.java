@@ -0,0 +1,49 @@
+package com.example.currency_rates.load;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Задержки одного сценария в наносекундах. Массив фиксированного размера по числу запланированных запросов.
+ */
+final class LatencyRecorder {
+
+    private final long[] latencies;
+    private final AtomicInteger recorded = new AtomicInteger();
+    private final AtomicInteger errors = new AtomicInteger();
+
+    LatencyRecorder(int capacity) {
+        latencies = new long[capacity];
+    }
+
+    void record(long latencyNanos, boolean success) {
+        latencies[recorded.getAndIncrement()] = latencyNanos;
+        if (!success) {
+            errors.incrementAndGet();
+        }
+    }
+
+    int count() {
+        return recorded.get();
+    }
+
+    int errors() {
+        return errors.get();
+    }
+
+    /**
+     * Перцентили в миллисекундах для {@code quantiles} из (0, 1].
+     */
+    double[] percentilesMillis(double... quantiles) {
+        long[] sorted = Arrays.copyOf(latencies, recorded.get());
+        Arrays.sort(sorted);
+        double[] result = new double[quantiles.length];
+        for (int i = 0; i < quantiles.length; i++) {
+            if (sorted.length > 0) {
+                int index = Math.max(0, (int) Math.ceil(quantiles[i] * sorted.length) - 1);
+                result[i] = sorted[index] / 1_000_000.0;
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.currency_rates.load;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Параметры прогона из системных свойств {@code load.*}; Gradle пробрасывает их из {@code -Pload.*}.
+ */
+record LoadSettings(int rps,
+                    Duration warmup,
+                    Duration duration,
+                    List<String> scenarios,
+                    Duration upstreamLatency,
+                    double upstreamErrorRate,
+                    int eventsPerDay) {
+
+    static LoadSettings fromSystemProperties() {
+        return new LoadSettings(
+                Integer.getInteger("load.rps", 100),
+                Duration.parse("PT" + System.getProperty("load.warmup", "10s")),
+                Duration.parse("PT" + System.getProperty("load.duration", "30s")),
+                List.of(System.getProperty("load.scenarios", "currency-rate,currency-rates,convert,events,events-v2").split(",")),
+                Duration.ofMillis(Long.getLong("load.upstreamLatencyMs", 50)),
+                Double.parseDouble(System.getProperty("load.upstreamErrorRate", "0")),
+                Integer.getInteger("load.eventsPerDay", 250));
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.currency_rates.load;
+
+import com.example.currency_rates.CurrencyRatesApplication;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Нагрузочный прогон: приложение поднимается в этом же JVM против {@link UpstreamStubs}
+ * и по очереди получает каждый сценарий с постоянной частотой запросов (открытая модель).
+ * Задержка считается от запланированного момента отправки, поэтому отставание генератора
+ * не прячет очереди на сервере.
+ */
+public final class LoadTestRunner {
+
+    private static final String EVENTS_QUERY = "?budget=5000&currency=RUB&dateFrom=2024-10-01&dateTo=2024-10-08";
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadSettings settings = LoadSettings.fromSystemProperties();
+        WireMockServer upstream = UpstreamStubs.start(settings);
+        // Аргументы командной строки перекрывают application.yml, в отличие от properties() билдера.
+        List<String> appArgs = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--currency.cbr-url=" + upstream.baseUrl() + UpstreamStubs.CBR_PATH,
+                "--kudago.e-url=" + upstream.baseUrl() + UpstreamStubs.KUDAGO_PATH,
+                "--logging.level.root=WARN"));
+        appArgs.addAll(List.of(args));
+        ConfigurableApplicationContext app = new SpringApplicationBuilder(CurrencyRatesApplication.class)
+                .run(appArgs.toArray(new String[0]));
+
+        try {
+            String baseUrl = "http://localhost:" + app.getEnvironment().getProperty("local.server.port");
+            Map<String, HttpRequest> scenarios = scenarios(baseUrl);
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+
+            System.out.printf("rps=%d duration=%s upstreamLatency=%s upstreamErrorRate=%.3f%n",
+                    settings.rps(), settings.duration(), settings.upstreamLatency(), settings.upstreamErrorRate());
+            System.out.printf("%-16s %8s %8s %12s %10s %10s %10s %10s%n",
+                    "scenario", "requests", "errors", "throughput/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+            for (String name : settings.scenarios()) {
+                HttpRequest request = scenarios.get(name.trim());
+                if (request == null) {
+                    throw new IllegalArgumentException("Unknown scenario " + name + ", expected one of " + scenarios.keySet());
+                }
+                drive(client, request, settings.rps(), settings.warmup());
+                long started = System.nanoTime();
+                LatencyRecorder recorder = drive(client, request, settings.rps(), settings.duration());
+                double seconds = (System.nanoTime() - started) / 1e9;
+                double[] p = recorder.percentilesMillis(0.5, 0.99, 0.999, 1.0);
+                System.out.printf("%-16s %8d %8d %12.1f %10.2f %10.2f %10.2f %10.2f%n",
+                        name.trim(), recorder.count(), recorder.errors(), recorder.count() / seconds, p[0], p[1], p[2], p[3]);
+            }
+        } finally {
+            app.close();
+            upstream.stop();
+        }
+    }
+
+    private static Map<String, HttpRequest> scenarios(String baseUrl) {
+        Map<String, HttpRequest> scenarios = new LinkedHashMap<>();
+        scenarios.put("currency-rate", get(baseUrl + "/currencies/rates/USD"));
+        scenarios.put("currency-rates", get(baseUrl + "/currencies/rates"));
+        scenarios.put("convert", HttpRequest.newBuilder(URI.create(baseUrl + "/currencies/convert"))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"fromCurrency\":\"USD\",\"toCurrency\":\"EUR\",\"amount\":1234.56}"))
+                .build());
+        scenarios.put("events", get(baseUrl + "/events" + EVENTS_QUERY));
+        scenarios.put("events-v2", get(baseUrl + "/events/v2" + EVENTS_QUERY));
+        return scenarios;
+    }
+
+    private static HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(30)).GET().build();
+    }
+
+    private static LatencyRecorder drive(HttpClient client, HttpRequest request, int rps, Duration duration) throws InterruptedException {
+        long period = TimeUnit.SECONDS.toNanos(1) / rps;
+        int total = (int) (duration.toNanos() / period);
+        LatencyRecorder recorder = new LatencyRecorder(total);
+        CountDownLatch completed = new CountDownLatch(total);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < total; i++) {
+            long scheduled = start + i * period;
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, ex) -> {
+                recorder.record(System.nanoTime() - scheduled, ex == null && response.statusCode() < 400);
+                completed.countDown();
+            });
+        }
+        // Запросы ограничены таймаутом в 30 с: если минуты не хватило, перцентили посчитались бы по неполной выборке.
+        if (!completed.await(1, TimeUnit.MINUTES)) {
+            throw new IllegalStateException(completed.getCount() + " of " + total + " requests to " + request.uri()
+                    + " did not complete within 1 minute");
+        }
+        return recorder;
+    }
+}
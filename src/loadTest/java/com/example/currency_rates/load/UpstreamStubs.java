@@ -0,0 +1,113 @@
+package com.example.currency_rates.load;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.common.FileSource;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformer;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+
+/**
+ * WireMock вместо ЦБ и KudaGo. Страницы событий генерируются по параметрам запроса,
+ * ко всем ответам добавляются лог-нормальная задержка и доля ошибок 503.
+ */
+final class UpstreamStubs {
+
+    static final String CBR_PATH = "/scripts/XML_daily.asp";
+    static final String KUDAGO_PATH = "/public-api/v1.4/events/";
+
+    private UpstreamStubs() {
+    }
+
+    static WireMockServer start(LoadSettings settings) {
+        WireMockServer server = new WireMockServer(options()
+                .dynamicPort()
+                .containerThreads(200)
+                .extensions(new UpstreamTransformer(settings)));
+        server.start();
+
+        server.stubFor(get(urlPathEqualTo(CBR_PATH)).willReturn(aResponse()
+                .withHeader("Content-Type", "application/xml; charset=utf-8")
+                .withBody(readResource("/cbr-daily.xml"))));
+        server.stubFor(get(urlPathEqualTo(KUDAGO_PATH)).willReturn(aResponse()
+                .withHeader("Content-Type", "application/json")));
+        return server;
+    }
+
+    private static byte[] readResource(String name) {
+        try (InputStream in = UpstreamStubs.class.getResourceAsStream(name)) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static final class UpstreamTransformer extends ResponseDefinitionTransformer {
+        private final LoadSettings settings;
+
+        private UpstreamTransformer(LoadSettings settings) {
+            this.settings = settings;
+        }
+
+        @Override
+        public ResponseDefinition transform(Request request, ResponseDefinition response, FileSource files, Parameters parameters) {
+            ResponseDefinitionBuilder builder = ResponseDefinitionBuilder.like(response).but();
+            if (!settings.upstreamLatency().isZero()) {
+                builder.withLogNormalRandomDelay(settings.upstreamLatency().toMillis(), 0.3);
+            }
+            if (ThreadLocalRandom.current().nextDouble() < settings.upstreamErrorRate()) {
+                return builder.withStatus(503).withBody("Service Unavailable").build();
+            }
+            if (request.getUrl().startsWith(KUDAGO_PATH)) {
+                builder.withBody(eventsPage(request));
+            }
+            return builder.build();
+        }
+
+        private String eventsPage(Request request) {
+            long since = Long.parseLong(request.queryParameter("actual_since").firstValue());
+            int pageSize = Integer.parseInt(request.queryParameter("page_size").firstValue());
+            int page = Integer.parseInt(request.queryParameter("page").firstValue());
+            int count = settings.eventsPerDay();
+            int from = (page - 1) * pageSize;
+            int to = Math.min(count, from + pageSize);
+
+            StringBuilder json = new StringBuilder(64 + pageSize * 64)
+                    .append("{\"count\":").append(count)
+                    .append(",\"next\":").append(to < count ? "\"page=" + (page + 1) + "\"" : "null")
+                    .append(",\"previous\":null,\"results\":[");
+            long dayId = since / 86_400 * 10_000;
+            for (int i = from; i < to; i++) {
+                if (i > from) {
+                    json.append(',');
+                }
+                String price = i % 10 == 0 ? "" : "от " + (100 + i * 37 % 5000) + " до " + (6000 + i) + " рублей";
+                json.append("{\"id\":").append(dayId + i)
+                        .append(",\"title\":\"Event ").append(i)
+                        .append("\",\"price\":\"").append(price).append("\"}");
+            }
+            return json.append("]}").toString();
+        }
+
+        @Override
+        public String getName() {
+            return "upstream";
+        }
+
+        @Override
+        public boolean applyGlobally() {
+            return true;
+        }
+    }
+}
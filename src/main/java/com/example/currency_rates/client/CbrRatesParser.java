@@ -0,0 +1,103 @@
+package com.example.currency_rates.client;
+
+import org.springframework.stereotype.Component;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Потоковый разбор документа {@code ValCurs} ЦБ РФ прямо из тела ответа.
+ * Из каждого {@code Valute} читаются только {@code CharCode}, {@code Nominal} и {@code Value}.
+ */
+@Component
+public class CbrRatesParser {
+
+    private static final DateTimeFormatter CBR_DATE_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+
+    private final XMLInputFactory inputFactory;
+
+    public CbrRatesParser() {
+        inputFactory = XMLInputFactory.newFactory();
+        inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        inputFactory.setProperty(XMLInputFactory.IS_COALESCING, true);
+    }
+
+    public RateSnapshot parse(InputStream body) throws XMLStreamException {
+        XMLStreamReader reader = inputFactory.createXMLStreamReader(body);
+        try {
+            return parse(reader);
+        } finally {
+            reader.close();
+        }
+    }
+
+    private RateSnapshot parse(XMLStreamReader reader) throws XMLStreamException {
+        RateSnapshot.Builder builder = null;
+        char[] buffer = new char[32];
+        String charCode = null;
+        int nominal = 1;
+        BigDecimal value = null;
+
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                switch (reader.getLocalName()) {
+                    case "ValCurs" -> {
+                        String date = reader.getAttributeValue(null, "Date");
+                        builder = RateSnapshot.builder(date == null ? null : LocalDate.parse(date, CBR_DATE_FORMAT));
+                    }
+                    case "Valute" -> {
+                        charCode = null;
+                        nominal = 1;
+                        value = null;
+                    }
+                    case "CharCode" -> charCode = reader.getElementText().trim();
+                    case "Nominal" -> nominal = Integer.parseInt(reader.getElementText().trim());
+                    case "Value" -> {
+                        if (reader.next() == XMLStreamConstants.CHARACTERS) {
+                            buffer = ensureCapacity(buffer, reader.getTextLength());
+                            value = parseDecimal(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength(), buffer);
+                        }
+                    }
+                    default -> {
+                    }
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT && "Valute".equals(reader.getLocalName())) {
+                if (builder == null || charCode == null || value == null) {
+                    throw new XMLStreamException("Incomplete Valute element", reader.getLocation());
+                }
+                builder.add(charCode, nominal, value);
+            }
+        }
+
+        if (builder == null) {
+            throw new XMLStreamException("ValCurs element not found");
+        }
+        return builder.build();
+    }
+
+    // ЦБ публикует курсы с десятичной запятой: копируем цифры в буфер, заменяя её на точку.
+    private static BigDecimal parseDecimal(char[] text, int start, int length, char[] buffer) {
+        int size = 0;
+        for (int i = start; i < start + length; i++) {
+            char c = text[i];
+            if (c == ',') {
+                buffer[size++] = '.';
+            } else if (!Character.isWhitespace(c)) {
+                buffer[size++] = c;
+            }
+        }
+        return new BigDecimal(buffer, 0, size);
+    }
+
+    private static char[] ensureCapacity(char[] buffer, int length) {
+        return buffer.length >= length ? buffer : new char[length];
+    }
+}
@@ -1,48 +1,93 @@
 package com.example.currency_rates.client;
 
+import com.example.currency_rates.config.CacheConfig;
 import com.example.currency_rates.exception.ServiceException;
-import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpMethod;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
-import java.nio.charset.StandardCharsets;
-import java.util.List;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import javax.xml.stream.XMLStreamException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
 
 
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 @Component
 public class CurrencyClient {
+    private static final Logger logger = LoggerFactory.getLogger(CurrencyClient.class);
+
+    private static final DateTimeFormatter CBR_REQUEST_DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
     private final RestTemplate restTemplate;
     private final String cbrFullUrl;
-    private final XmlMapper xmlMapper;
+    private final CbrRatesParser ratesParser;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RateSnapshotCache snapshotCache;
+    private final Duration maxStale;
 
-    public CurrencyClient(RestTemplate restTemplate, @Value("${currency.cbr-url}") String cbrFullUrl, XmlMapper xmlMapper) {
+    public CurrencyClient(RestTemplate restTemplate, @Value("${currency.cbr-url}") String cbrFullUrl, CbrRatesParser ratesParser,
+                          ApplicationEventPublisher eventPublisher, RateSnapshotCache snapshotCache,
+                          @Value("${currency.cache.max-stale:72h}") Duration maxStale) {
         this.restTemplate = restTemplate;
         this.cbrFullUrl = cbrFullUrl;
-        this.xmlMapper = xmlMapper;
+        this.ratesParser = ratesParser;
+        this.eventPublisher = eventPublisher;
+        this.snapshotCache = snapshotCache;
+        this.maxStale = maxStale;
     }
 
     @CircuitBreaker(name = "cbrService", fallbackMethod = "fallbackGetCurrencies")
-    @Cacheable(value = "currencyList", unless = "#result == null")
-    public List<CBCurrencyResponse> getCurrencies() {
-        String xmlResponse = restTemplate.getForObject(cbrFullUrl, String.class);
-        return parseCurrencies(xmlResponse);
+    @Cacheable(value = CacheConfig.CURRENCY_CACHE, unless = "#result == null")
+    public RateSnapshot getCurrencies() {
+        return fetchCurrencies();
     }
 
-    public List<CBCurrencyResponse> fallbackGetCurrencies(Throwable ex) {
-        System.err.println("Error occurred while fetching currencies: " + ex.getMessage());
-        throw new ServiceException("ЦБ сервис недоступен, попробуйте позже");
+    public RateSnapshot fetchCurrencies() {
+        RateSnapshot snapshot = fetch(cbrFullUrl);
+        if (snapshot != null) {
+            eventPublisher.publishEvent(new RateSnapshotFetchedEvent(snapshot));
+        }
+        return snapshot;
     }
 
-    private List<CBCurrencyResponse> parseCurrencies(String xmlResponse) {
-        System.out.println("Received XML Response: " + xmlResponse);
-        try {
-            ValCurs valCurs = xmlMapper.readValue(xmlResponse.getBytes(StandardCharsets.UTF_8), ValCurs.class);
-            return valCurs.getValutes();
-        } catch (Exception e) {
-            e.printStackTrace(); // Логируем стек вызовов
-            throw new ServiceException("Ошибка при парсинге ответа от ЦБ РФ", e);
+    /**
+     * Выгрузка, действовавшая на дату: ЦБ отдаёт последний {@code ValCurs} не позже {@code date_req}.
+     * Событие о загрузке не публикуется — это не текущий снимок. Запрос идёт через тот же circuit breaker:
+     * пока ЦБ недоступен, загрузка истории отказывает сразу, а не ждёт таймаутов на каждый день.
+     */
+    @CircuitBreaker(name = "cbrService")
+    public RateSnapshot fetchCurrencies(LocalDate date) {
+        return fetch(UriComponentsBuilder.fromHttpUrl(cbrFullUrl)
+                .queryParam("date_req", CBR_REQUEST_DATE_FORMAT.format(date))
+                .toUriString());
+    }
+
+    private RateSnapshot fetch(String url) {
+        return restTemplate.execute(url, HttpMethod.GET, null, response -> {
+            try {
+                return ratesParser.parse(response.getBody());
+            } catch (XMLStreamException | RuntimeException e) {
+                throw new ServiceException("Ошибка при парсинге ответа от ЦБ РФ", e);
+            }
+        });
+    }
+
+    // Пока ЦБ недоступен, отдаём последний удачный снимок не старше max-stale; насколько он устарел,
+    // видно по заголовку X-Rates-Stale и метрике currency.rates.staleness.
+    public RateSnapshot fallbackGetCurrencies(Throwable ex) {
+        RateSnapshot stale = snapshotCache.lastGood(maxStale);
+        if (stale != null) {
+            logger.warn("Error fetching currencies, serving rates fetched at {}: {}", stale.getFetchedAt(), ex.getMessage());
+            return stale;
         }
+        logger.error("Error fetching currencies, no rates within {}: {}", maxStale, ex.getMessage());
+        throw new ServiceException("ЦБ сервис недоступен, попробуйте позже");
     }
-}
\ No newline at end of file
+}
@@ -4,7 +4,6 @@ import com.example.currency_rates.config.KudaGoConfig;
 import com.example.currency_rates.dto.EventResponse;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
-import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.client.RestTemplate;
 
 import java.util.concurrent.Semaphore;
@@ -15,18 +14,24 @@ public class EventsClient {
     private final RestTemplate restTemplate;
     protected final Semaphore semaphore;
     private String eventApiUrl;
+    private final int pageSize;
 
     public EventsClient(RestTemplate restTemplate, KudaGoConfig properties) {
         this.restTemplate = restTemplate;
         this.semaphore = new Semaphore(properties.getMaxConcurrentRequests());
         this.eventApiUrl = properties.getEUrl();
+        this.pageSize = properties.getPageSize();
     }
 
-    public EventResponse getEvents(long dateFrom, long dateTo) {
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public EventResponse getEvents(long dateFrom, long dateTo, int page) {
         try {
             semaphore.acquire();
-            String url = String.format("%s?fields=id,title,price&order_by=-price&text_format=plain&actual_since=%d&actual_until=%d",
-                    eventApiUrl, dateFrom, dateTo);
+            String url = String.format("%s?fields=id,title,price&order_by=-price&text_format=plain&actual_since=%d&actual_until=%d&page_size=%d&page=%d",
+                    eventApiUrl, dateFrom, dateTo, pageSize, page);
             return restTemplate.getForObject(url, EventResponse.class);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
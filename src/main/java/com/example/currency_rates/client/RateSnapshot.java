@@ -0,0 +1,140 @@
+package com.example.currency_rates.client;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Неизменяемый снимок курсов ЦБ РФ на дату {@code ValCurs}.
+ * Курсы разобраны один раз при загрузке и приведены к номиналу 1,
+ * поэтому поиск курса по коду — это обращение к хеш-таблице без работы со строками.
+ */
+public final class RateSnapshot {
+
+    private final LocalDate date;
+    private final Instant fetchedAt;
+    private final String[] codes;
+    private final int[] nominals;
+    private final BigDecimal[] rates;
+    private final Map<String, Integer> ordinals;
+    private final String version;
+
+    private RateSnapshot(LocalDate date, Instant fetchedAt, String[] codes, int[] nominals, BigDecimal[] rates) {
+        this.date = date;
+        this.fetchedAt = fetchedAt;
+        this.codes = codes;
+        this.nominals = nominals;
+        this.rates = rates;
+        this.ordinals = new HashMap<>(codes.length * 2);
+        long hash = 1;
+        for (int i = 0; i < codes.length; i++) {
+            ordinals.put(codes[i], i);
+            hash = 31 * hash + codes[i].hashCode();
+            hash = 31 * hash + nominals[i];
+            hash = 31 * hash + rates[i].stripTrailingZeros().hashCode();
+        }
+        this.version = date + "-" + Long.toHexString(hash);
+    }
+
+    public static Builder builder(LocalDate date) {
+        return new Builder(date);
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    /**
+     * Момент загрузки снимка из ЦБ; по нему считается, когда кеш запросит следующий.
+     */
+    public Instant getFetchedAt() {
+        return fetchedAt;
+    }
+
+    /**
+     * Дата {@code ValCurs} и хеш содержимого: меняется только вместе с курсами, годится как строгий ETag.
+     */
+    public String getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return codes.length;
+    }
+
+    public boolean contains(String code) {
+        return ordinals.containsKey(code);
+    }
+
+    /**
+     * Курс одной единицы валюты в рублях или {@code null}, если валюты нет в снимке.
+     */
+    public BigDecimal getRate(String code) {
+        Integer ordinal = ordinals.get(code);
+        return ordinal == null ? null : rates[ordinal];
+    }
+
+    /**
+     * Порядковый номер валюты в снимке или {@code -1}, если её нет.
+     */
+    public int ordinalOf(String code) {
+        Integer ordinal = ordinals.get(code);
+        return ordinal == null ? -1 : ordinal;
+    }
+
+    public String getCode(int ordinal) {
+        return codes[ordinal];
+    }
+
+    public int getNominal(int ordinal) {
+        return nominals[ordinal];
+    }
+
+    public BigDecimal getRate(int ordinal) {
+        return rates[ordinal];
+    }
+
+    public static final class Builder {
+        private final LocalDate date;
+        private Instant fetchedAt;
+        private final List<String> codes = new ArrayList<>();
+        private final List<Integer> nominals = new ArrayList<>();
+        private final List<BigDecimal> rates = new ArrayList<>();
+
+        private Builder(LocalDate date) {
+            this.date = date;
+        }
+
+        /**
+         * Момент загрузки из ЦБ для снимка, восстановленного из хранилища; по умолчанию — момент {@link #build()}.
+         */
+        public Builder fetchedAt(Instant fetchedAt) {
+            this.fetchedAt = fetchedAt;
+            return this;
+        }
+
+        /**
+         * Добавляет курс в том виде, в каком его публикует ЦБ: цена {@code nominal} единиц валюты.
+         */
+        public Builder add(String code, int nominal, BigDecimal value) {
+            codes.add(code);
+            nominals.add(nominal);
+            rates.add(nominal <= 1 ? value : value.divide(BigDecimal.valueOf(nominal), MathContext.DECIMAL64));
+            return this;
+        }
+
+        public RateSnapshot build() {
+            int size = codes.size();
+            int[] nominalArray = new int[size];
+            for (int i = 0; i < size; i++) {
+                nominalArray[i] = nominals.get(i);
+            }
+            return new RateSnapshot(date, fetchedAt != null ? fetchedAt : Instant.now(), codes.toArray(new String[0]), nominalArray, rates.toArray(new BigDecimal[0]));
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.currency_rates.client;
+
+import com.example.currency_rates.config.CacheConfig;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Прямой доступ к кешу снимков {@link CurrencyClient#getCurrencies()}: ключ у метода без аргументов — {@link SimpleKey#EMPTY}.
+ * Помнит последний удачный снимок дольше, чем он живёт в кеше: его отдаёт fallback, пока ЦБ недоступен.
+ */
+@Component
+public class RateSnapshotCache {
+    private static final Logger logger = LoggerFactory.getLogger(RateSnapshotCache.class);
+
+    private final CacheManager cacheManager;
+    private final Duration maxStale;
+    private final Duration warmRetryInitial;
+    private final Duration warmRetryMax;
+    private final Function<Duration, Executor> delayedExecutor;
+    private final AtomicReference<RateSnapshot> lastGood = new AtomicReference<>();
+    private final AtomicBoolean fetched = new AtomicBoolean();
+    private final AtomicBoolean warmRetrying = new AtomicBoolean();
+
+    @Autowired
+    public RateSnapshotCache(CacheManager cacheManager, MeterRegistry meterRegistry,
+                             @Value("${currency.cache.max-stale:72h}") Duration maxStale,
+                             @Value("${currency.cache.warm-retry.initial:5s}") Duration warmRetryInitial,
+                             @Value("${currency.cache.warm-retry.max:5m}") Duration warmRetryMax) {
+        this(cacheManager, meterRegistry, maxStale, warmRetryInitial, warmRetryMax,
+                delay -> CompletableFuture.delayedExecutor(delay.toMillis(), TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * @param delayedExecutor исполнитель, запускающий задачу через заданную паузу: повторы прогрева идут через него
+     */
+    public RateSnapshotCache(CacheManager cacheManager, MeterRegistry meterRegistry, Duration maxStale,
+                             Duration warmRetryInitial, Duration warmRetryMax, Function<Duration, Executor> delayedExecutor) {
+        this.cacheManager = cacheManager;
+        this.maxStale = maxStale;
+        this.warmRetryInitial = warmRetryInitial;
+        this.warmRetryMax = warmRetryMax;
+        this.delayedExecutor = delayedExecutor;
+        Gauge.builder("currency.rates.staleness", this, cache -> {
+                    Duration staleness = cache.staleness();
+                    return staleness == null ? Double.NaN : staleness.toMillis() / 1000.0;
+                })
+                .description("Время с момента загрузки последнего удачного снимка курсов ЦБ")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Кладёт снимок, если в кеше нет более свежего, и сразу запускает фоновую загрузку из ЦБ:
+     * пока она идёт, запросы обслуживаются положенным снимком. Прогревов при старте может быть несколько
+     * (файл, история) — побеждает снимок с самым поздним {@link RateSnapshot#getFetchedAt()}.
+     * Если ЦБ недоступен, загрузка повторяется с растущей паузой до первой удачной, а не через refresh-after.
+     * Снимок старше max-stale не кладётся: такие курсы не отдаёт и fallback.
+     */
+    public boolean seed(RateSnapshot snapshot) {
+        if (snapshot.getFetchedAt().plus(maxStale).isBefore(Instant.now())) {
+            logger.info("Skipping warm-start snapshot for {} fetched at {}: older than {}", snapshot.getDate(), snapshot.getFetchedAt(), maxStale);
+            return false;
+        }
+        remember(snapshot);
+        Cache<Object, Object> cache = nativeCache();
+        boolean seeded = cache.asMap().merge(SimpleKey.EMPTY, snapshot, (cached, seed) ->
+                newer((RateSnapshot) cached, (RateSnapshot) seed)) == snapshot;
+        if (seeded && !fetched.get() && cache instanceof LoadingCache<Object, Object> loadingCache
+                && warmRetrying.compareAndSet(false, true)) {
+            refreshUntilFetched(loadingCache, warmRetryInitial);
+        }
+        return seeded;
+    }
+
+    @EventListener
+    public void onSnapshotFetched(RateSnapshotFetchedEvent event) {
+        fetched.set(true);
+        remember(event.snapshot());
+    }
+
+    /**
+     * Последний удачный снимок, если он загружен не раньше {@code maxStale} назад, иначе {@code null}.
+     */
+    public RateSnapshot lastGood(Duration maxStale) {
+        RateSnapshot snapshot = lastGood.get();
+        if (snapshot == null || snapshot.getFetchedAt().plus(maxStale).isBefore(Instant.now())) {
+            return null;
+        }
+        return snapshot;
+    }
+
+    /**
+     * Сколько прошло с загрузки последнего удачного снимка или {@code null}, если снимков ещё не было.
+     */
+    public Duration staleness() {
+        RateSnapshot snapshot = lastGood.get();
+        return snapshot == null ? null : Duration.between(snapshot.getFetchedAt(), Instant.now());
+    }
+
+    // Caffeine не запускает вторую загрузку, пока идёт первая: обычный промах кеша и повтор ждут одну.
+    private void refreshUntilFetched(LoadingCache<Object, Object> loadingCache, Duration delay) {
+        loadingCache.refresh(SimpleKey.EMPTY).whenComplete((ignored, ex) -> {
+            if (fetched.get()) {
+                warmRetrying.set(false);
+                return;
+            }
+            logger.warn("Currency rates are still served from the warm-start snapshot, retrying CBR in {}", delay);
+            Duration doubled = delay.multipliedBy(2);
+            Duration next = doubled.compareTo(warmRetryMax) > 0 ? warmRetryMax : doubled;
+            delayedExecutor.apply(delay).execute(() -> refreshUntilFetched(loadingCache, next));
+        });
+    }
+
+    private void remember(RateSnapshot snapshot) {
+        lastGood.accumulateAndGet(snapshot, RateSnapshotCache::newer);
+    }
+
+    private static RateSnapshot newer(RateSnapshot current, RateSnapshot candidate) {
+        return current == null || current.getFetchedAt().isBefore(candidate.getFetchedAt()) ? candidate : current;
+    }
+
+    private Cache<Object, Object> nativeCache() {
+        return ((CaffeineCache) cacheManager.getCache(CacheConfig.CURRENCY_CACHE)).getNativeCache();
+    }
+}
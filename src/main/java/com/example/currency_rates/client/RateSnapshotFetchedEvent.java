@@ -0,0 +1,7 @@
+package com.example.currency_rates.client;
+
+/**
+ * Публикуется после каждой успешной загрузки и разбора курсов ЦБ.
+ */
+public record RateSnapshotFetchedEvent(RateSnapshot snapshot) {
+}
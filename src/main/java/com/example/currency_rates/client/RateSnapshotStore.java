@@ -0,0 +1,120 @@
+package com.example.currency_rates.client;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Optional;
+
+/**
+ * Последний загруженный снимок курсов в локальном файле: после рестарта он попадает в кеш
+ * синхронно при старте, а свежий из ЦБ подгружается в фоне.
+ * Формат — заголовок и по записи на валюту: код, номинал и цена номинала как unscaled long со scale.
+ */
+@Component
+public class RateSnapshotStore implements SmartInitializingSingleton {
+    private static final Logger logger = LoggerFactory.getLogger(RateSnapshotStore.class);
+
+    private static final int MAGIC = 0x43425231; // "CBR1"
+    private static final long NO_DATE = Long.MIN_VALUE;
+
+    private final RateSnapshotCache snapshotCache;
+    private final Path file;
+
+    public RateSnapshotStore(RateSnapshotCache snapshotCache, @Value("${currency.snapshot-file:}") String file) {
+        this.snapshotCache = snapshotCache;
+        this.file = file.isBlank() ? null : Path.of(file);
+    }
+
+    @EventListener
+    public void onSnapshotFetched(RateSnapshotFetchedEvent event) {
+        if (file == null) {
+            return;
+        }
+        try {
+            save(event.snapshot(), file);
+        } catch (IOException | ArithmeticException e) {
+            logger.warn("Could not store currency snapshot to {}: {}", file, e.getMessage());
+        }
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (file == null || !Files.exists(file)) {
+            return;
+        }
+        try {
+            load(file).ifPresent(snapshot -> {
+                if (snapshotCache.seed(snapshot)) {
+                    logger.info("Warmed currency cache with {} rates for {} from {}", snapshot.size(), snapshot.getDate(), file);
+                }
+            });
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not load currency snapshot from {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Пишет во временный файл рядом и атомарно подменяет прежний: читатель никогда не увидит половину снимка.
+     */
+    public static void save(RateSnapshot snapshot, Path file) throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream stream = Files.newOutputStream(tmp);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream))) {
+                out.writeInt(MAGIC);
+                out.writeLong(snapshot.getDate() == null ? NO_DATE : snapshot.getDate().toEpochDay());
+                out.writeLong(snapshot.getFetchedAt().toEpochMilli());
+                out.writeShort(snapshot.size());
+                for (int i = 0; i < snapshot.size(); i++) {
+                    int nominal = snapshot.getNominal(i);
+                    BigDecimal value = snapshot.getRate(i).multiply(BigDecimal.valueOf(nominal)).stripTrailingZeros();
+                    out.writeUTF(snapshot.getCode(i));
+                    out.writeInt(nominal);
+                    out.writeLong(value.unscaledValue().longValueExact());
+                    out.writeByte(value.scale());
+                }
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    public static Optional<RateSnapshot> load(Path file) throws IOException {
+        try (InputStream stream = Files.newInputStream(file);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(stream))) {
+            if (in.readInt() != MAGIC) {
+                return Optional.empty();
+            }
+            long epochDay = in.readLong();
+            RateSnapshot.Builder builder = RateSnapshot.builder(epochDay == NO_DATE ? null : LocalDate.ofEpochDay(epochDay))
+                    .fetchedAt(Instant.ofEpochMilli(in.readLong()));
+            int size = in.readUnsignedShort();
+            for (int i = 0; i < size; i++) {
+                String code = in.readUTF();
+                int nominal = in.readInt();
+                builder.add(code, nominal, BigDecimal.valueOf(in.readLong(), in.readByte()));
+            }
+            return Optional.of(builder.build());
+        }
+    }
+}
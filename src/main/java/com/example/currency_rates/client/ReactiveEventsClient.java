@@ -0,0 +1,109 @@
+package com.example.currency_rates.client;
+
+import com.example.currency_rates.config.KudaGoConfig;
+import com.example.currency_rates.dto.EventResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+public class ReactiveEventsClient {
+
+    private final WebClient webClient;
+    private final String eventApiUrl;
+    private final int pageSize;
+    private final int maxConcurrentRequests;
+
+    // Неблокирующий аналог семафора EventsClient: вызовы сверх лимита ждут разрешения в очереди, поток при этом не занят.
+    private final AtomicInteger permits;
+    private final Queue<Waiter> waiting = new ConcurrentLinkedQueue<>();
+
+    public ReactiveEventsClient(WebClient webClient, KudaGoConfig properties) {
+        this.webClient = webClient;
+        this.eventApiUrl = properties.getEUrl();
+        this.pageSize = properties.getPageSize();
+        this.maxConcurrentRequests = properties.getMaxConcurrentRequests();
+        this.permits = new AtomicInteger(maxConcurrentRequests);
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public int getMaxConcurrentRequests() {
+        return maxConcurrentRequests;
+    }
+
+    public Mono<EventResponse> getEvents(long dateFrom, long dateTo, int page) {
+        String url = String.format("%s?fields=id,title,price&order_by=-price&text_format=plain&actual_since=%d&actual_until=%d&page_size=%d&page=%d",
+                eventApiUrl, dateFrom, dateTo, pageSize, page);
+        return Mono.usingWhen(acquire(),
+                permit -> webClient.get()
+                        .uri(url)
+                        .retrieve()
+                        .bodyToMono(EventResponse.class),
+                permit -> Mono.fromRunnable(this::release));
+    }
+
+    private Mono<Boolean> acquire() {
+        return Mono.create(sink -> {
+            Waiter waiter = new Waiter(sink);
+            sink.onCancel(waiter::cancel);
+            waiting.add(waiter);
+            drain();
+        });
+    }
+
+    private void release() {
+        permits.incrementAndGet();
+        drain();
+    }
+
+    // Отдаёт свободные разрешения ожидающим в порядке очереди; отменённые ожидания разрешение не получают.
+    private void drain() {
+        while (!waiting.isEmpty()) {
+            int available = permits.get();
+            if (available == 0) {
+                return;
+            }
+            if (!permits.compareAndSet(available, available - 1)) {
+                continue;
+            }
+            Waiter waiter = waiting.poll();
+            if (waiter == null || !waiter.grant()) {
+                permits.incrementAndGet();
+            }
+        }
+    }
+
+    private final class Waiter {
+        private final MonoSink<Boolean> sink;
+        private final AtomicBoolean settled = new AtomicBoolean();
+
+        private Waiter(MonoSink<Boolean> sink) {
+            this.sink = sink;
+        }
+
+        boolean grant() {
+            if (!settled.compareAndSet(false, true)) {
+                return false;
+            }
+            sink.success(Boolean.TRUE);
+            return true;
+        }
+
+        // onCancel срабатывает, только пока sink не завершён: если разрешение уже выдано, значение до подписчика
+        // не дошло, и разрешение нужно вернуть.
+        void cancel() {
+            if (!settled.compareAndSet(false, true)) {
+                release();
+            }
+        }
+    }
+}
@@ -1,20 +0,0 @@
-package com.example.currency_rates.client;
-
-import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlElementWrapper;
-import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlProperty;
-import lombok.Data;
-
-import java.util.List;
-
-@Data
-public class ValCurs {
-    @JacksonXmlProperty(isAttribute = true, localName = "Date")
-    private String date;
-
-    @JacksonXmlProperty(isAttribute = true)
-    private String name;
-
-    @JacksonXmlProperty(localName = "Valute")
-    @JacksonXmlElementWrapper(useWrapping = false)
-    private List<CBCurrencyResponse> valutes;
-}
@@ -1,19 +1,73 @@
 package com.example.currency_rates.config;
 
-import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import io.netty.channel.ChannelOption;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 public class AppConfig {
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(CloseableHttpClient httpClient) {
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
     }
 
+    // Общий пул соединений для KudaGo и ЦБ: keep-alive, лимиты на хост, таймауты и gzip (включён в HttpClient по умолчанию).
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient httpClient(HttpClientConfig properties) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(properties.getMaxConnections())
+                .setMaxConnPerRoute(properties.getMaxConnectionsPerRoute())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(properties.getConnectTimeout()))
+                        .setSocketTimeout(Timeout.of(properties.getReadTimeout()))
+                        .build())
+                .build();
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.of(properties.getConnectionRequestTimeout()))
+                .setResponseTimeout(Timeout.of(properties.getReadTimeout()))
+                .setDefaultKeepAlive(properties.getKeepAlive().toMillis(), TimeUnit.MILLISECONDS)
+                .build();
+
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(properties.getIdleEviction()))
+                .build();
+    }
+
+    // Неблокирующий клиент для /events/v2: тот же набор лимитов и таймаутов поверх Reactor Netty.
     @Bean
-    public XmlMapper xmlMapper() {
-        return new XmlMapper();
+    public WebClient webClient(WebClient.Builder builder, HttpClientConfig properties) {
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("upstream")
+                .maxConnections(properties.getMaxConnectionsPerRoute())
+                .pendingAcquireTimeout(properties.getConnectionRequestTimeout())
+                .maxIdleTime(properties.getKeepAlive())
+                .evictInBackground(properties.getIdleEviction())
+                .build();
+
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .responseTimeout(properties.getReadTimeout())
+                .compress(true);
+
+        return builder.clientConnector(new ReactorClientHttpConnector(httpClient)).build();
     }
-}
\ No newline at end of file
+}
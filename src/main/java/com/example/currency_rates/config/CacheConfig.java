@@ -1,17 +1,33 @@
 package com.example.currency_rates.config;
 
+import com.example.currency_rates.client.CurrencyClient;
+import com.example.currency_rates.client.RateSnapshot;
+import com.example.currency_rates.dto.Event;
+import com.example.currency_rates.services.EventPriceIndex;
+import com.github.benmanes.caffeine.cache.AsyncCache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 @Configuration
 @EnableCaching
 public class CacheConfig {
 
+    public static final String CURRENCY_CACHE = "currencyList";
+
     @Bean
     public Caffeine<Object, Object> caffeineConfig() {
         return Caffeine.newBuilder()
@@ -20,9 +36,74 @@ public class CacheConfig {
     }
 
     @Bean
-    public CacheManager cacheManager(Caffeine<Object, Object> caffeine) {
+    public AsyncCache<LocalDate, List<Event>> eventDayCache(@Value("${events.cache.maximum-days:366}") long maximumDays,
+                                                            @Value("${events.cache.expire-after:15m}") Duration expireAfter) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumDays)
+                .expireAfterWrite(expireAfter)
+                .buildAsync();
+    }
+
+    // Индекс ключуется самими корзинами окна и после перезагрузки любой из них не находится;
+    // срок жизни лишь вычищает такие осиротевшие записи.
+    @Bean
+    public AsyncCache<EventPriceIndex.Window, EventPriceIndex> eventIndexCache(@Value("${events.cache.maximum-windows:256}") long maximumWindows,
+                                                                               @Value("${events.cache.expire-after:15m}") Duration expireAfter) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumWindows)
+                .expireAfterWrite(expireAfter)
+                .buildAsync();
+    }
+
+    @Bean
+    public CacheManager cacheManager(Caffeine<Object, Object> caffeine,
+                                     ObjectProvider<CurrencyClient> currencyClient,
+                                     @Value("${currency.cache.refresh-after:1h}") Duration refreshAfter,
+                                     @Value("${currency.cache.expire-after:24h}") Duration expireAfter,
+                                     @Value("${currency.cache.max-stale:72h}") Duration maxStale) {
         CaffeineCacheManager cacheManager = new CaffeineCacheManager();
         cacheManager.setCaffeine(caffeine);
+        // Курсы перезагружаются в фоне: пока идёт запрос в ЦБ, читатели получают предыдущий снимок,
+        // а одновременные промахи схлопываются в одну загрузку.
+        cacheManager.registerCustomCache(CURRENCY_CACHE, currencyCache(Caffeine.newBuilder(), currencyClient, refreshAfter, expireAfter, maxStale));
         return cacheManager;
     }
-}
\ No newline at end of file
+
+    // Сборка вынесена из бина, чтобы тесты могли подставить в builder свой Ticker и исполнитель.
+    public static LoadingCache<Object, Object> currencyCache(Caffeine<Object, Object> builder, ObjectProvider<CurrencyClient> currencyClient,
+                                                             Duration refreshAfter, Duration expireAfter, Duration maxStale) {
+        return builder
+                .refreshAfterWrite(refreshAfter)
+                .expireAfter(snapshotExpiry(expireAfter, maxStale))
+                .build(key -> currencyClient.getObject().fetchCurrencies());
+    }
+
+    // Снимок живёт expire-after с записи, но не дольше max-stale с загрузки из ЦБ: прогрев из файла
+    // или неудачные обновления не продлевают жизнь старым курсам.
+    private static Expiry<Object, Object> snapshotExpiry(Duration expireAfter, Duration maxStale) {
+        return new Expiry<>() {
+            @Override
+            public long expireAfterCreate(Object key, Object value, long currentTime) {
+                return lifetime(value);
+            }
+
+            @Override
+            public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+                return lifetime(value);
+            }
+
+            @Override
+            public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+                return currentDuration;
+            }
+
+            private long lifetime(Object value) {
+                if (!(value instanceof RateSnapshot snapshot)) {
+                    return expireAfter.toNanos();
+                }
+                Duration left = Duration.between(Instant.now(), snapshot.getFetchedAt().plus(maxStale));
+                return Math.max(0, Math.min(expireAfter.toNanos(), left.toNanos()));
+            }
+        };
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.currency_rates.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "events.executor")
+public class EventsExecutorConfig {
+    private Type type = Type.PLATFORM;
+    private int poolSize = 32;
+    private int queueCapacity = 1000;
+    private Duration awaitTermination = Duration.ofSeconds(30);
+
+    public enum Type {
+        /**
+         * Пул платформенных потоков фиксированного размера, метрики публикуются через Actuator.
+         */
+        PLATFORM,
+        /**
+         * Виртуальный поток на задачу. Требует запуска на JDK 21+.
+         */
+        VIRTUAL
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.currency_rates.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class ExecutorConfig {
+
+    public static final String EVENTS_EXECUTOR = "eventsExecutor";
+
+    public static final String CBR_HISTORY_EXECUTOR = "cbrHistoryExecutor";
+
+    private static final String EVENTS_THREAD_PREFIX = "events-";
+
+    // Свои Executor-бины отключают applicationTaskExecutor Spring Boot, и потоки /events/stream писались бы через
+    // SimpleAsyncTaskExecutor — по неограниченному потоку на ответ. Этот пул MVC подхватывает по имени бина,
+    // размеры берутся из spring.task.execution.pool.
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public ThreadPoolTaskExecutor applicationTaskExecutor(ThreadPoolTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    @Bean(name = EVENTS_EXECUTOR)
+    public AsyncTaskExecutor eventsExecutor(EventsExecutorConfig properties) {
+        if (properties.getType() == EventsExecutorConfig.Type.VIRTUAL) {
+            if (Runtime.version().feature() < 21) {
+                throw new IllegalStateException("events.executor.type=virtual requires Java 21 or newer, running on " + Runtime.version());
+            }
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(EVENTS_THREAD_PREFIX);
+            executor.setVirtualThreads(true);
+            executor.setTaskTerminationTimeout(properties.getAwaitTermination().toMillis());
+            return executor;
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(EVENTS_THREAD_PREFIX);
+        executor.setCorePoolSize(properties.getPoolSize());
+        executor.setMaxPoolSize(properties.getPoolSize());
+        executor.setQueueCapacity(properties.getQueueCapacity());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationMillis(properties.getAwaitTermination().toMillis());
+        return executor;
+    }
+
+    // Размер пула и есть предел параллельных запросов к ЦБ при сборке истории; сверх очереди загрузки отклоняются.
+    @Bean(name = CBR_HISTORY_EXECUTOR)
+    public ThreadPoolTaskExecutor cbrHistoryExecutor(@Value("${currency.history.max-concurrent-requests:4}") int maxConcurrentRequests,
+                                                     @Value("${currency.history.queue-capacity:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("cbr-history-");
+        executor.setCorePoolSize(maxConcurrentRequests);
+        executor.setMaxPoolSize(maxConcurrentRequests);
+        executor.setQueueCapacity(queueCapacity);
+        return executor;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.currency_rates.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "http-client")
+public class HttpClientConfig {
+    private int maxConnections = 50;
+    private int maxConnectionsPerRoute = 20;
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration readTimeout = Duration.ofSeconds(10);
+    private Duration connectionRequestTimeout = Duration.ofSeconds(2);
+    private Duration keepAlive = Duration.ofSeconds(30);
+    private Duration idleEviction = Duration.ofMinutes(1);
+}
@@ -11,5 +11,6 @@ import org.springframework.stereotype.Component;
 @ConfigurationProperties(prefix = "kudago")
 public class KudaGoConfig {
     private int maxConcurrentRequests;
+    private int pageSize = 100;
     private String eUrl;
 }
\ No newline at end of file
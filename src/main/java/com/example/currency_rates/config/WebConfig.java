@@ -0,0 +1,31 @@
+package com.example.currency_rates.config;
+
+import com.example.currency_rates.client.RateSnapshotCache;
+import com.example.currency_rates.controller.RateStalenessInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<RateSnapshotCache> snapshotCache;
+    private final Duration refreshAfter;
+
+    public WebConfig(ObjectProvider<RateSnapshotCache> snapshotCache,
+                     @Value("${currency.cache.refresh-after:1h}") Duration refreshAfter) {
+        this.snapshotCache = snapshotCache;
+        this.refreshAfter = refreshAfter;
+    }
+
+    // В срезах @WebMvcTest кеша курсов нет — там заголовок не нужен.
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        snapshotCache.ifAvailable(cache -> registry.addInterceptor(new RateStalenessInterceptor(cache, refreshAfter))
+                .addPathPatterns("/currencies/**", "/events/**"));
+    }
+}
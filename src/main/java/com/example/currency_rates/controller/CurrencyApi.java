@@ -1,20 +1,42 @@
 package com.example.currency_rates.controller;
 
+import com.example.currency_rates.dto.ConvertCurrencyBatchResult;
 import com.example.currency_rates.dto.ConvertCurrencyRequest;
 import com.example.currency_rates.dto.ConvertCurrencyResponse;
 import com.example.currency_rates.dto.CurrencyRateResponse;
+import com.example.currency_rates.dto.CurrencyRateSeriesResponse;
+import com.example.currency_rates.dto.CurrencyRatesResponse;
 import com.example.currency_rates.exception.CustomErrorResponse;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.util.List;
+
 @RequestMapping("/currencies")
 public interface CurrencyApi {
 
-    @Operation(summary = "Получить курс валюты по коду")
+    @Operation(summary = "Получить все курсы текущего снимка ЦБ")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Курсы успешно получены",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = CurrencyRatesResponse.class))),
+            @ApiResponse(responseCode = "304", description = "Снимок не изменился с указанного ETag"),
+            @ApiResponse(responseCode = "503", description = "Сервис недоступен",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = CustomErrorResponse.class)))
+    })
+    @GetMapping("/rates")
+    ResponseEntity<CurrencyRatesResponse> getCurrencyRates(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch);
+
+    @Operation(summary = "Получить курс валюты по коду; с параметром date — из сохранённой истории")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Курс успешно получен",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = CurrencyRateResponse.class))),
@@ -25,8 +47,25 @@ public interface CurrencyApi {
             @ApiResponse(responseCode = "503", description = "Сервис недоступен",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = CustomErrorResponse.class)))
     })
-    @GetMapping("/rates/{code}")
-    CurrencyRateResponse getCurrencyRate(@PathVariable String code);
+    @GetMapping(value = "/rates/{code}", produces = MediaType.APPLICATION_JSON_VALUE)
+    ResponseEntity<byte[]> getCurrencyRate(@PathVariable String code,
+                                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date);
+
+    @Operation(summary = "Получить курсы валюты за период по выгрузкам ЦБ")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Ряд курсов успешно получен",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = CurrencyRateSeriesResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Неверный код валюты или период",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = CustomErrorResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Валюта не найдена в ЦБ",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = CustomErrorResponse.class))),
+            @ApiResponse(responseCode = "503", description = "Сервис недоступен",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = CustomErrorResponse.class)))
+    })
+    @GetMapping("/rates/{code}/history")
+    CurrencyRateSeriesResponse getCurrencyRateHistory(@PathVariable String code,
+                                                      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to);
 
     @Operation(summary = "Конвертировать валюту")
     @ApiResponses(value = {
@@ -41,4 +80,16 @@ public interface CurrencyApi {
     })
     @PostMapping("/convert")
     ConvertCurrencyResponse convertCurrency(@RequestBody ConvertCurrencyRequest request);
-}
\ No newline at end of file
+
+    @Operation(summary = "Конвертировать пакет сумм по одному снимку курсов")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Результаты в порядке запросов, ошибки — по элементам",
+                    content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = ConvertCurrencyBatchResult.class)))),
+            @ApiResponse(responseCode = "400", description = "Пустой пакет",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = CustomErrorResponse.class))),
+            @ApiResponse(responseCode = "503", description = "Сервис недоступен",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = CustomErrorResponse.class)))
+    })
+    @PostMapping("/convert/batch")
+    List<ConvertCurrencyBatchResult> convertCurrencies(@RequestBody List<ConvertCurrencyRequest> requests);
+}
@@ -1,27 +1,80 @@
 package com.example.currency_rates.controller;
 
+import com.example.currency_rates.client.RateSnapshot;
+import com.example.currency_rates.dto.ConvertCurrencyBatchResult;
 import com.example.currency_rates.dto.ConvertCurrencyRequest;
 import com.example.currency_rates.dto.ConvertCurrencyResponse;
-import com.example.currency_rates.dto.CurrencyRateResponse;
+import com.example.currency_rates.dto.CurrencyRateSeriesResponse;
+import com.example.currency_rates.dto.CurrencyRatesResponse;
 import com.example.currency_rates.services.CurrencyService;
+import com.example.currency_rates.services.RateSeriesService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/currencies")
 public class CurrencyController implements CurrencyApi {
 
     private final CurrencyService currencyService;
+    private final RateSeriesService rateSeriesService;
+
+    @Value("${currency.cache.refresh-after:1h}")
+    private Duration refreshAfter;
+
+    @Override
+    public ResponseEntity<CurrencyRatesResponse> getCurrencyRates(String ifNoneMatch) {
+        RateSnapshot snapshot = currencyService.getCurrentSnapshot();
+        ETag etag = new ETag(snapshot.getVersion(), false);
+        // Клиент может держать ответ до фонового обновления снимка в кеше.
+        Duration untilRefresh = refreshAfter.minus(Duration.between(snapshot.getFetchedAt(), Instant.now()));
+        CacheControl cacheControl = CacheControl.maxAge(untilRefresh.isNegative() ? Duration.ZERO : untilRefresh);
+
+        if (ifNoneMatch != null && ETag.parse(ifNoneMatch).stream().anyMatch(tag -> tag.isWildcard() || tag.tag().equals(etag.tag()))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag.formattedTag())
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag.formattedTag())
+                .cacheControl(cacheControl)
+                .body(currencyService.getCurrencyRates(snapshot));
+    }
 
     @Override
-    public CurrencyRateResponse getCurrencyRate(String code) {
-        return currencyService.getCurrencyRate(code);
+    public ResponseEntity<byte[]> getCurrencyRate(String code, LocalDate date) {
+        byte[] body = date == null ? currencyService.getCurrencyRateJson(code) : currencyService.getCurrencyRateJson(code, date);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .contentLength(body.length)
+                .body(body);
+    }
+
+    @Override
+    public CurrencyRateSeriesResponse getCurrencyRateHistory(String code, LocalDate from, LocalDate to) {
+        return rateSeriesService.getRateSeries(code, from, to);
     }
 
     @Override
     public ConvertCurrencyResponse convertCurrency(ConvertCurrencyRequest request) {
         return currencyService.convertCurrency(request);
     }
-}
\ No newline at end of file
+
+    @Override
+    public List<ConvertCurrencyBatchResult> convertCurrencies(List<ConvertCurrencyRequest> requests) {
+        return currencyService.convertCurrencies(requests);
+    }
+}
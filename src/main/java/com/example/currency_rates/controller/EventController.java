@@ -1,13 +1,16 @@
 package com.example.currency_rates.controller;
 
 
+import com.example.currency_rates.dto.Event;
 import com.example.currency_rates.dto.EventResponse;
 import com.example.currency_rates.services.EventService;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 
 import java.time.LocalDate;
 import java.util.concurrent.CompletableFuture;
@@ -30,4 +33,14 @@ public class EventController {
         return eventService.getFilteredEvents(budget, currency, dateFrom, dateTo)
                 .thenApply(ResponseEntity::ok);
     }
+
+    @GetMapping(value = "/stream", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<Event> streamEvents(
+            @RequestParam double budget,
+            @RequestParam String currency,
+            @RequestParam(required = false) LocalDate dateFrom,
+            @RequestParam(required = false) LocalDate dateTo) {
+        logger.info("Received request to stream events with budget: {}, currency: {}, dateFrom: {}, dateTo: {}", budget, currency, dateFrom, dateTo);
+        return eventService.streamFilteredEvents(budget, currency, dateFrom, dateTo);
+    }
 }
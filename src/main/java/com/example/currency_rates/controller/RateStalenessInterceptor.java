@@ -0,0 +1,34 @@
+package com.example.currency_rates.controller;
+
+import com.example.currency_rates.client.RateSnapshotCache;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Duration;
+
+/**
+ * Помечает ответы, посчитанные по устаревшим курсам: снимок старше {@code refresh-after} значит,
+ * что фоновые обновления из ЦБ не проходят. В заголовке — возраст снимка в секундах.
+ */
+public class RateStalenessInterceptor implements HandlerInterceptor {
+
+    public static final String STALE_HEADER = "X-Rates-Stale";
+
+    private final RateSnapshotCache snapshotCache;
+    private final Duration refreshAfter;
+
+    public RateStalenessInterceptor(RateSnapshotCache snapshotCache, Duration refreshAfter) {
+        this.snapshotCache = snapshotCache;
+        this.refreshAfter = refreshAfter;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Duration staleness = snapshotCache.staleness();
+        if (staleness != null && staleness.compareTo(refreshAfter) > 0) {
+            response.setHeader(STALE_HEADER, Long.toString(staleness.toSeconds()));
+        }
+        return true;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.currency_rates.dto;
+
+import com.example.currency_rates.exception.CustomErrorResponse;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ConvertCurrencyBatchResult {
+    private ConvertCurrencyResponse result;
+    private CustomErrorResponse error;
+
+    public static ConvertCurrencyBatchResult success(ConvertCurrencyResponse result) {
+        return new ConvertCurrencyBatchResult(result, null);
+    }
+
+    public static ConvertCurrencyBatchResult failure(int code, String message) {
+        return new ConvertCurrencyBatchResult(null, new CustomErrorResponse(code, message));
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.currency_rates.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Ряд курсов валюты: {@code rates[i]} действует с {@code dates[i]} — даты выгрузки ЦБ, без повторов за выходные.
+ * Минимум, максимум и среднее считаются по календарным дням периода.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CurrencyRateSeriesResponse {
+    private String currency;
+    private List<LocalDate> dates;
+    private List<BigDecimal> rates;
+    private BigDecimal min;
+    private BigDecimal max;
+    private BigDecimal average;
+}
@@ -0,0 +1,17 @@
+package com.example.currency_rates.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CurrencyRatesResponse {
+    private LocalDate date;
+    private Map<String, BigDecimal> rates;
+}
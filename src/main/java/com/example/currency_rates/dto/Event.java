@@ -1,14 +1,20 @@
 package com.example.currency_rates.dto;
 
+import com.example.currency_rates.util.PriceParser;
+import com.example.currency_rates.util.PriceRange;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlProperty;
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 
 @Data
-@AllArgsConstructor
 @NoArgsConstructor
 public class Event {
+    public static final double UNKNOWN_PRICE = Double.NaN;
+
     @JacksonXmlProperty(isAttribute = true)
     private int id;
 
@@ -21,6 +27,44 @@ public class Event {
     @JacksonXmlProperty(localName = "price")
     private String price;
 
-    private Double parsedPrice;
-}
+    // Цена разбирается один раз при десериализации ответа KudaGo; UNKNOWN_PRICE не проходит ни одно сравнение с бюджетом.
+    // Границы задаёт только setPrice, иначе они разойдутся со строкой цены.
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    private double minPrice = UNKNOWN_PRICE;
+
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    private double maxPrice = UNKNOWN_PRICE;
+
+    public Event(int id, String title, boolean isFree, String price) {
+        this.id = id;
+        this.title = title;
+        this.isFree = isFree;
+        setPrice(price);
+    }
 
+    public void setPrice(String price) {
+        this.price = price;
+        PriceRange range = PriceParser.parse(price);
+        this.minPrice = range.getMin();
+        this.maxPrice = range.getMax();
+    }
+
+    @JsonIgnore
+    public boolean isPriceKnown() {
+        return !Double.isNaN(minPrice);
+    }
+
+    public boolean fitsBudget(double budget) {
+        return isFree || minPrice <= budget;
+    }
+
+    @JsonProperty("parsedPrice")
+    public Double getParsedPrice() {
+        if (isPriceKnown()) {
+            return minPrice;
+        }
+        return isFree ? 0.0 : null;
+    }
+}
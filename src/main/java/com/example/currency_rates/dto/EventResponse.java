@@ -24,6 +24,13 @@ public class EventResponse {
     @JacksonXmlElementWrapper(useWrapping = false)
     @JacksonXmlProperty(localName = "event")
     private List<Event> results;
+
+    public int pageCount(int pageSize) {
+        if (next == null || pageSize <= 0) {
+            return 1;
+        }
+        return (count + pageSize - 1) / pageSize;
+    }
 }
 
 
@@ -2,6 +2,7 @@ package com.example.currency_rates.exception;
 
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -23,42 +24,49 @@ public class GlobalExceptionHandler {
                 .collect(Collectors.joining("; "));
 
         CustomErrorResponse errorResponse = new CustomErrorResponse(400, errorMessage);
-        return new ResponseEntity<>(errorResponse, new HttpHeaders(), HttpStatus.BAD_REQUEST);
+        return new ResponseEntity<>(errorResponse, jsonHeaders(), HttpStatus.BAD_REQUEST);
     }
 
     @ExceptionHandler(InvalidRequestException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ResponseEntity<CustomErrorResponse> handleInvalidRequest(InvalidRequestException ex) {
         CustomErrorResponse errorResponse = new CustomErrorResponse(400, ex.getMessage());
-        return new ResponseEntity<>(errorResponse, new HttpHeaders(), HttpStatus.BAD_REQUEST);
+        return new ResponseEntity<>(errorResponse, jsonHeaders(), HttpStatus.BAD_REQUEST);
     }
 
     @ExceptionHandler(IllegalArgumentException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ResponseEntity<CustomErrorResponse> handleIllegalArgumentException(IllegalArgumentException ex) {
         CustomErrorResponse errorResponse = new CustomErrorResponse(400, ex.getMessage());
-        return new ResponseEntity<>(errorResponse, new HttpHeaders(), HttpStatus.BAD_REQUEST);
+        return new ResponseEntity<>(errorResponse, jsonHeaders(), HttpStatus.BAD_REQUEST);
     }
 
     @ExceptionHandler(Exception.class)
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ResponseEntity<CustomErrorResponse> handleGenericException(Exception ex) {
         CustomErrorResponse errorResponse = new CustomErrorResponse(500, "An unexpected error occurred");
-        return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
+        return new ResponseEntity<>(errorResponse, jsonHeaders(), HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
     @ExceptionHandler(CurrencyNotFoundException.class)
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public ResponseEntity<CustomErrorResponse> handleCurrencyNotFound(CurrencyNotFoundException ex) {
         CustomErrorResponse errorResponse = new CustomErrorResponse(ErrorType.CURRENCY_NOT_FOUND.getCode(), ex.getMessage());
-        return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
+        return new ResponseEntity<>(errorResponse, jsonHeaders(), HttpStatus.NOT_FOUND);
     }
 
     @ExceptionHandler(ServiceException.class)
     public ResponseEntity<CustomErrorResponse> handleServiceException(ServiceException ex) {
-        HttpHeaders headers = new HttpHeaders();
+        HttpHeaders headers = jsonHeaders();
         headers.add("Retry-After", "3600");
         CustomErrorResponse errorResponse = new CustomErrorResponse(ErrorType.SERVICE_UNAVAILABLE.getCode(), ex.getMessage());
         return new ResponseEntity<>(errorResponse, headers, HttpStatus.SERVICE_UNAVAILABLE);
     }
-}
\ No newline at end of file
+
+    // Тело ошибки всегда JSON, даже если клиент просил поток (NDJSON, SSE): иначе его нечем записать и вместо кода уходит 500.
+    private static HttpHeaders jsonHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return headers;
+    }
+}
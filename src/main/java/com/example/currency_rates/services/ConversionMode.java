@@ -0,0 +1,19 @@
+package com.example.currency_rates.services;
+
+/**
+ * Способ расчёта конвертации, свойство {@code currency.conversion.mode}.
+ */
+public enum ConversionMode {
+    /** Курсы пары делятся на каждый запрос, как публикует ЦБ; результат точный. */
+    EXACT,
+    /**
+     * Кросс-курсы всех пар считаются один раз на снимок, конвертация — одно умножение с тем же округлением,
+     * что в {@link #EXACT}. Кросс-курс хранится с 34 значащими цифрами, поэтому результат расходится с точным
+     * только если частное лежит на границе округления ближе этой точности.
+     */
+    MATRIX,
+    /** Та же матрица в long с фиксированной точкой; быстрее, но кросс-курс округлён до 10 знаков. */
+    MATRIX_LONG,
+    /** Точный расчёт в long с фиксированной точкой; при переполнении — через BigDecimal. */
+    FIXED_POINT
+}
@@ -0,0 +1,102 @@
+package com.example.currency_rates.services;
+
+import com.example.currency_rates.client.RateSnapshot;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+
+/**
+ * Кросс-курсы всех пар снимка в плоском массиве {@code [from * size + to]}.
+ * Рубль добавлен последним порядковым номером с курсом 1.
+ */
+final class CrossRateMatrix {
+
+    static final long OVERFLOW = Long.MIN_VALUE;
+
+    private static final int FIXED_SCALE = 10;
+    private static final int AMOUNT_SCALE = 4;
+    // Сумма в 10^-4 на кросс-курс в 10^-10 даёт 10^-14: до 4 знаков делим на 10^10, до копеек — на 10^12.
+    private static final long AMOUNT_DIVISOR = 10_000_000_000L;
+    private static final long CENTS_DIVISOR = 1_000_000_000_000L;
+
+    private final RateSnapshot snapshot;
+    private final int size;
+    private final BigDecimal[] crossRates;
+    private final long[] fixedCrossRates;
+
+    private CrossRateMatrix(RateSnapshot snapshot, BigDecimal[] crossRates, long[] fixedCrossRates) {
+        this.snapshot = snapshot;
+        this.size = snapshot.size() + 1;
+        this.crossRates = crossRates;
+        this.fixedCrossRates = fixedCrossRates;
+    }
+
+    static CrossRateMatrix of(RateSnapshot snapshot) {
+        int size = snapshot.size() + 1;
+        BigDecimal[] rates = new BigDecimal[size];
+        for (int i = 0; i < snapshot.size(); i++) {
+            rates[i] = snapshot.getRate(i);
+        }
+        rates[size - 1] = BigDecimal.ONE;
+
+        BigDecimal[] crossRates = new BigDecimal[size * size];
+        long[] fixedCrossRates = new long[size * size];
+        for (int from = 0; from < size; from++) {
+            for (int to = 0; to < size; to++) {
+                BigDecimal cross = rates[from].divide(rates[to], MathContext.DECIMAL128);
+                crossRates[from * size + to] = cross;
+                fixedCrossRates[from * size + to] = cross.setScale(FIXED_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+            }
+        }
+        return new CrossRateMatrix(snapshot, crossRates, fixedCrossRates);
+    }
+
+    int ordinalOf(String code) {
+        if ("RUB".equals(code)) {
+            return size - 1;
+        }
+        return snapshot.ordinalOf(code);
+    }
+
+    BigDecimal convert(BigDecimal amount, int from, int to) {
+        BigDecimal converted = amount.multiply(crossRates[from * size + to]);
+        if (roundsToAmountScale(from, to)) {
+            converted = converted.setScale(AMOUNT_SCALE, RoundingMode.HALF_UP);
+        }
+        return converted.setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Сумма в копейках или {@link #OVERFLOW}, если произведение не помещается в long.
+     * Сумма округляется до 4 знаков, как в точном расчёте; ожидается положительной.
+     */
+    long convertToCents(BigDecimal amount, int from, int to) {
+        BigDecimal scaledAmount = amount.setScale(AMOUNT_SCALE, RoundingMode.HALF_UP);
+        if (scaledAmount.precision() > 18) {
+            return OVERFLOW;
+        }
+        long units = scaledAmount.unscaledValue().longValue();
+        long product;
+        try {
+            product = Math.multiplyExact(units, fixedCrossRates[from * size + to]);
+        } catch (ArithmeticException e) {
+            return OVERFLOW;
+        }
+        if (roundsToAmountScale(from, to)) {
+            return roundHalfUp(roundHalfUp(product, AMOUNT_DIVISOR), 100);
+        }
+        return roundHalfUp(product, CENTS_DIVISOR);
+    }
+
+    // Точный расчёт округляет частное до 4 знаков и потом до копеек; только произведение в рубли — сразу до копеек.
+    private boolean roundsToAmountScale(int from, int to) {
+        return from == size - 1 || to != size - 1;
+    }
+
+    private static long roundHalfUp(long value, long divisor) {
+        long quotient = value / divisor;
+        long remainder = value % divisor;
+        return remainder >= divisor - remainder ? quotient + 1 : quotient;
+    }
+}
@@ -1,86 +1,219 @@
 package com.example.currency_rates.services;
 
-import com.example.currency_rates.client.CBCurrencyResponse;
 import com.example.currency_rates.client.CurrencyClient;
+import com.example.currency_rates.client.RateSnapshot;
+import com.example.currency_rates.dto.ConvertCurrencyBatchResult;
 import com.example.currency_rates.dto.ConvertCurrencyRequest;
 import com.example.currency_rates.dto.ConvertCurrencyResponse;
 import com.example.currency_rates.dto.CurrencyRateResponse;
+import com.example.currency_rates.dto.CurrencyRatesResponse;
 import com.example.currency_rates.exception.CurrencyNotFoundException;
+import com.example.currency_rates.exception.ErrorType;
 import com.example.currency_rates.exception.InvalidRequestException;
 import com.example.currency_rates.exception.ServiceException;
 import com.example.currency_rates.mapper.CBCurrencyResponseToCurrencyRateResponseMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Currency;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class CurrencyService {
 
     private static final String RUB_CODE = "RUB";
+    private static final Set<String> SUPPORTED_CODES = Currency.getAvailableCurrencies().stream()
+            .map(Currency::getCurrencyCode)
+            .collect(Collectors.toUnmodifiableSet());
 
     private final CurrencyClient currencyClient;
     private final CBCurrencyResponseToCurrencyRateResponseMapper currencyMapper;
+    private final ObjectMapper objectMapper;
+    private final SnapshotMemo<CurrencyRatesResponse> ratesResponse = new SnapshotMemo<>(CurrencyService::toRatesResponse);
+    private final SnapshotMemo<Map<String, byte[]>> renderedRates = new SnapshotMemo<>(this::renderRates);
+    private final ConversionMode conversionMode;
+    private final SnapshotMemo<CrossRateMatrix> crossRates = new SnapshotMemo<>(CrossRateMatrix::of);
+    private final SnapshotMemo<FixedPointRates> fixedPointRates = new SnapshotMemo<>(FixedPointRates::of);
 
-    public CurrencyService(CurrencyClient currencyClient, CBCurrencyResponseToCurrencyRateResponseMapper currencyMapper) {
+    private final RateHistoryService rateHistoryService;
+
+    public CurrencyService(CurrencyClient currencyClient, CBCurrencyResponseToCurrencyRateResponseMapper currencyMapper,
+                           ObjectMapper objectMapper,
+                           @Value("${currency.conversion.mode:exact}") ConversionMode conversionMode,
+                           RateHistoryService rateHistoryService) {
         this.currencyClient = currencyClient;
         this.currencyMapper = currencyMapper;
+        this.objectMapper = objectMapper;
+        this.conversionMode = conversionMode;
+        this.rateHistoryService = rateHistoryService;
     }
 
     public CurrencyRateResponse getCurrencyRate(String code) {
         validateCurrencyCode(code);
 
-        try {
-            List<CBCurrencyResponse> currencies = currencyClient.getCurrencies();
-            CBCurrencyResponse currency = getCurrencyByCode(code, currencies);
+        RateSnapshot snapshot = getSnapshot();
+        return new CurrencyRateResponse(code, getRateByCode(code, snapshot));
+    }
 
-            return new CurrencyRateResponse(
-                    currency.getCharCode(),
-                    new BigDecimal(currency.getValue().replace(",", "."))
-            );
-        } catch (Exception e) {
-            throw new ServiceException("Error retrieving currency rates from the service", e);
+    /**
+     * Готовое JSON-тело {@link CurrencyRateResponse}: сериализуется один раз на снимок, а не на каждый запрос.
+     */
+    public byte[] getCurrencyRateJson(String code) {
+        validateCurrencyCode(code);
+
+        byte[] body = renderedRates.get(getSnapshot()).get(code);
+        if (body == null) {
+            throw new CurrencyNotFoundException("Currency not found - " + code);
         }
+        return body;
+    }
+
+    /**
+     * Курс на прошедшую дату из истории курсов, общей с рядом {@code /history}: день загружается из ЦБ один раз.
+     */
+    public byte[] getCurrencyRateJson(String code, LocalDate date) {
+        validateCurrencyCode(code);
+
+        BigDecimal rate = RUB_CODE.equals(code) ? BigDecimal.ONE : rateHistoryService.findRate(code, date)
+                .orElseThrow(() -> new CurrencyNotFoundException("Currency not found - " + code + " on " + date));
+        try {
+            return objectMapper.writeValueAsBytes(new CurrencyRateResponse(code, rate));
+        } catch (JsonProcessingException e) {
+            throw new ServiceException("Error rendering currency rate", e);
+        }
+    }
+
+    /**
+     * Текущий снимок курсов; по его версии контроллер отвечает 304, не собирая тело.
+     */
+    public RateSnapshot getCurrentSnapshot() {
+        return getSnapshot();
+    }
+
+    public CurrencyRatesResponse getCurrencyRates(RateSnapshot snapshot) {
+        return ratesResponse.get(snapshot);
     }
 
     public ConvertCurrencyResponse convertCurrency(ConvertCurrencyRequest request) {
         validateConvertRequest(request);
 
-        var currencies = currencyClient.getCurrencies();
+        return convert(request, getSnapshot());
+    }
+
+    /**
+     * Конвертирует пакет по одному снимку курсов. Результаты идут в порядке запросов,
+     * ошибка отдельного элемента не прерывает пакет; недоступность ЦБ — ошибка всего пакета.
+     */
+    public List<ConvertCurrencyBatchResult> convertCurrencies(List<ConvertCurrencyRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new InvalidRequestException("Batch must contain at least one conversion");
+        }
+
+        RateSnapshot snapshot = getSnapshot();
+        List<ConvertCurrencyBatchResult> results = new ArrayList<>(requests.size());
+        for (ConvertCurrencyRequest request : requests) {
+            try {
+                validateConvertRequest(request);
+                results.add(ConvertCurrencyBatchResult.success(convert(request, snapshot)));
+            } catch (InvalidRequestException e) {
+                results.add(ConvertCurrencyBatchResult.failure(ErrorType.INVALID_CURRENCY_CODE.getCode(), e.getMessage()));
+            } catch (CurrencyNotFoundException e) {
+                results.add(ConvertCurrencyBatchResult.failure(ErrorType.CURRENCY_NOT_FOUND.getCode(), e.getMessage()));
+            }
+        }
+        return results;
+    }
 
-        CBCurrencyResponse fromCurrency;
-        CBCurrencyResponse toCurrency;
+    private ConvertCurrencyResponse convert(ConvertCurrencyRequest request, RateSnapshot snapshot) {
+        if (conversionMode == ConversionMode.FIXED_POINT) {
+            String convertedAmount = convertFixedPoint(request, snapshot);
+            if (convertedAmount != null) {
+                return new ConvertCurrencyResponse(request.getFromCurrency(), request.getToCurrency(), convertedAmount);
+            }
+        } else if (conversionMode != ConversionMode.EXACT) {
+            return createConvertCurrencyResponse(request, convertByMatrix(request, snapshot));
+        }
 
         if (RUB_CODE.equals(request.getFromCurrency())) {
-            toCurrency = getCurrencyByCode(request.getToCurrency(), currencies);
-            BigDecimal toRate = new BigDecimal(toCurrency.getValue().replace(",", "."));
+            BigDecimal toRate = getRateByCode(request.getToCurrency(), snapshot);
             BigDecimal convertedAmount = request.getAmount().divide(toRate, 4, RoundingMode.HALF_UP);
             return createConvertCurrencyResponse(request, convertedAmount);
         }
 
         if (RUB_CODE.equals(request.getToCurrency())) {
-            fromCurrency = getCurrencyByCode(request.getFromCurrency(), currencies);
-            BigDecimal fromRate = new BigDecimal(fromCurrency.getValue().replace(",", "."));
+            BigDecimal fromRate = getRateByCode(request.getFromCurrency(), snapshot);
             BigDecimal convertedAmount = request.getAmount().multiply(fromRate);
             return createConvertCurrencyResponse(request, convertedAmount);
         }
 
-        fromCurrency = getCurrencyByCode(request.getFromCurrency(), currencies);
-        toCurrency = getCurrencyByCode(request.getToCurrency(), currencies);
-
-        BigDecimal fromRateInRub = new BigDecimal(fromCurrency.getValue().replace(",", "."));
-        BigDecimal toRateInRub = new BigDecimal(toCurrency.getValue().replace(",", "."));
+        BigDecimal fromRateInRub = getRateByCode(request.getFromCurrency(), snapshot);
+        BigDecimal toRateInRub = getRateByCode(request.getToCurrency(), snapshot);
 
         BigDecimal convertedAmount = request.getAmount().multiply(fromRateInRub).divide(toRateInRub, 4, RoundingMode.HALF_UP);
 
         return createConvertCurrencyResponse(request, convertedAmount);
     }
 
+    private BigDecimal convertByMatrix(ConvertCurrencyRequest request, RateSnapshot snapshot) {
+        CrossRateMatrix matrix = crossRates.get(snapshot);
+        int from = getMatrixOrdinal(request.getFromCurrency(), matrix);
+        int to = getMatrixOrdinal(request.getToCurrency(), matrix);
+
+        if (conversionMode == ConversionMode.MATRIX_LONG) {
+            long cents = matrix.convertToCents(request.getAmount(), from, to);
+            if (cents != CrossRateMatrix.OVERFLOW) {
+                return BigDecimal.valueOf(cents, 2);
+            }
+        }
+        return matrix.convert(request.getAmount(), from, to);
+    }
+
+    // null, если сумма или промежуточный результат не помещаются в long: тогда считаем точным путём.
+    private String convertFixedPoint(ConvertCurrencyRequest request, RateSnapshot snapshot) {
+        FixedPointRates rates = fixedPointRates.get(snapshot);
+        int from = rates.ordinalOf(request.getFromCurrency());
+        int to = rates.ordinalOf(request.getToCurrency());
+        BigDecimal amount = request.getAmount();
+        if (from < 0 || to < 0 || amount.scale() < 0 || amount.precision() > 18) {
+            return null;
+        }
+
+        long cents = rates.convertToCents(amount.unscaledValue().longValue(), amount.scale(), from, to);
+        return cents == FixedPointRates.OVERFLOW ? null : FixedPointRates.formatCents(cents);
+    }
+
+    private int getMatrixOrdinal(String code, CrossRateMatrix matrix) {
+        int ordinal = matrix.ordinalOf(code);
+        if (ordinal < 0) {
+            throw new CurrencyNotFoundException("Currency not found - " + code);
+        }
+        return ordinal;
+    }
+
+    private RateSnapshot getSnapshot() {
+        try {
+            return currencyClient.getCurrencies();
+        } catch (ServiceException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ServiceException("Error retrieving currency rates from the service", e);
+        }
+    }
+
     private void validateConvertRequest(ConvertCurrencyRequest request) {
-        if (request.getFromCurrency() == null || request.getToCurrency() == null || request.getAmount() == null) {
+        if (request == null || request.getFromCurrency() == null || request.getToCurrency() == null || request.getAmount() == null) {
             throw new InvalidRequestException("Missing required parameters");
         }
         if (request.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
@@ -90,29 +223,43 @@ public class CurrencyService {
         validateCurrencyCode(request.getToCurrency());
     }
 
-    private void validateCurrencyCode(String code) {
+    static void validateCurrencyCode(String code) {
+        if (!SUPPORTED_CODES.contains(code)) {
+            throw new InvalidRequestException("Unsupported currency code - " + code);
+        }
+    }
+
+    private BigDecimal getRateByCode(String code, RateSnapshot snapshot) {
         if (RUB_CODE.equals(code)) {
-            return;
+            return BigDecimal.ONE;
         }
-        try {
-            Currency currency = Currency.getInstance(code);
-            List<CBCurrencyResponse> currencies = currencyClient.getCurrencies();
-            boolean currencyExists = currencies.stream().anyMatch(c -> c.getCharCode().equals(currency.getCurrencyCode()));
-            if (!currencyExists) {
-                throw new CurrencyNotFoundException("Currency not found - " + code);
-            }
-        } catch (IllegalArgumentException e) {
-            throw new InvalidRequestException("Unsupported currency code - " + code);
+        BigDecimal rate = snapshot.getRate(code);
+        if (rate == null) {
+            throw new CurrencyNotFoundException("Currency not found - " + code);
+        }
+        return rate;
+    }
+
+    private static CurrencyRatesResponse toRatesResponse(RateSnapshot snapshot) {
+        Map<String, BigDecimal> rates = new LinkedHashMap<>(snapshot.size() * 2);
+        for (int i = 0; i < snapshot.size(); i++) {
+            rates.put(snapshot.getCode(i), snapshot.getRate(i));
         }
+        return new CurrencyRatesResponse(snapshot.getDate(), Collections.unmodifiableMap(rates));
     }
 
-    private CBCurrencyResponse getCurrencyByCode(String code, List<CBCurrencyResponse> currencies) {
-        return currencies.stream()
-                .filter(cbCurrencyResponse -> Objects.equals(cbCurrencyResponse.getCharCode(), code))
-                .findFirst()
-                .orElseThrow(
-                        () -> new CurrencyNotFoundException("Currency not found - " + code)
-                );
+    private Map<String, byte[]> renderRates(RateSnapshot snapshot) {
+        Map<String, byte[]> bodies = new HashMap<>(snapshot.size() * 2 + 2);
+        try {
+            bodies.put(RUB_CODE, objectMapper.writeValueAsBytes(new CurrencyRateResponse(RUB_CODE, BigDecimal.ONE)));
+            for (int i = 0; i < snapshot.size(); i++) {
+                String code = snapshot.getCode(i);
+                bodies.put(code, objectMapper.writeValueAsBytes(new CurrencyRateResponse(code, snapshot.getRate(i))));
+            }
+        } catch (JsonProcessingException e) {
+            throw new ServiceException("Error rendering currency rates", e);
+        }
+        return bodies;
     }
 
     private ConvertCurrencyResponse createConvertCurrencyResponse(ConvertCurrencyRequest request, BigDecimal convertedAmount) {
@@ -0,0 +1,115 @@
+package com.example.currency_rates.services;
+
+import com.example.currency_rates.dto.Event;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.RandomAccess;
+
+/**
+ * Индекс событий окна дат по минимальной цене.
+ * Платные события отсортированы по возрастанию цены, поэтому запрос по бюджету —
+ * бинарный поиск по {@code double[]} и представление префикса без копирования.
+ * Бесплатные события подходят под любой бюджет и хранятся отдельно.
+ */
+public final class EventPriceIndex {
+
+    /**
+     * Ключ индекса — сами суточные корзины окна: после перезагрузки любой из них у окна новый ключ,
+     * поэтому индекс никогда не переживает данные, из которых собран.
+     */
+    public record Window(List<CompletableFuture<List<Event>>> buckets) {
+    }
+
+    private final List<Event> freeEvents;
+    private final List<Event> pricedEvents;
+    private final double[] prices;
+    private final int size;
+
+    private EventPriceIndex(List<Event> freeEvents, List<Event> pricedEvents, double[] prices, int size) {
+        this.freeEvents = freeEvents;
+        this.pricedEvents = pricedEvents;
+        this.prices = prices;
+        this.size = size;
+    }
+
+    public static EventPriceIndex of(List<Event> events) {
+        List<Event> free = new ArrayList<>();
+        List<Event> priced = new ArrayList<>(events.size());
+        for (Event event : events) {
+            if (event.isFree()) {
+                free.add(event);
+            } else if (event.isPriceKnown()) {
+                priced.add(event);
+            }
+        }
+        priced.sort(Comparator.comparingDouble(Event::getMinPrice));
+
+        double[] prices = new double[priced.size()];
+        for (int i = 0; i < prices.length; i++) {
+            prices[i] = priced.get(i).getMinPrice();
+        }
+        return new EventPriceIndex(Collections.unmodifiableList(free), Collections.unmodifiableList(priced), prices, events.size());
+    }
+
+    /**
+     * Бесплатные события и платные с минимальной ценой не выше бюджета, платные — по возрастанию цены.
+     */
+    public List<Event> withinBudget(double budget) {
+        List<Event> affordable = pricedEvents.subList(0, upperBound(budget));
+        if (affordable.isEmpty()) {
+            return freeEvents;
+        }
+        if (freeEvents.isEmpty()) {
+            return affordable;
+        }
+        return new ConcatView(freeEvents, affordable);
+    }
+
+    /**
+     * Число событий окна, включая платные с неизвестной ценой, которые не попадают ни под один бюджет.
+     */
+    public int size() {
+        return size;
+    }
+
+    // Первый индекс с ценой больше бюджета; для NaN-бюджета сравнения ложны и результат 0.
+    private int upperBound(double budget) {
+        int low = 0;
+        int high = prices.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (prices[mid] <= budget) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static final class ConcatView extends AbstractList<Event> implements RandomAccess {
+        private final List<Event> head;
+        private final List<Event> tail;
+
+        private ConcatView(List<Event> head, List<Event> tail) {
+            this.head = head;
+            this.tail = tail;
+        }
+
+        @Override
+        public Event get(int index) {
+            int headSize = head.size();
+            return index < headSize ? head.get(index) : tail.get(index - headSize);
+        }
+
+        @Override
+        public int size() {
+            return head.size() + tail.size();
+        }
+    }
+}
@@ -1,36 +1,53 @@
 package com.example.currency_rates.services;
 
 import com.example.currency_rates.client.EventsClient;
+import com.example.currency_rates.config.ExecutorConfig;
 import com.example.currency_rates.dto.CurrencyRateResponse;
 import com.example.currency_rates.dto.Event;
 import com.example.currency_rates.dto.EventResponse;
+import com.example.currency_rates.exception.InvalidRequestException;
 import com.example.currency_rates.exception.ServiceException;
+import com.github.benmanes.caffeine.cache.AsyncCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 
 import java.time.LocalDate;
-import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 
 @Service
 public class EventService {
     private final EventsClient eventApi;
     private final CurrencyService currencyService;
     private static final Logger logger = LoggerFactory.getLogger(EventService.class);
-    private static final Pattern PRICE_PATTERN = Pattern.compile("[\\d.,]+");
 
-    private final ExecutorService executorService = Executors.newFixedThreadPool(8);
+    private final Executor executorService;
+    private final AsyncCache<LocalDate, List<Event>> eventDayCache;
+    private final AsyncCache<EventPriceIndex.Window, EventPriceIndex> eventIndexCache;
+    private final long maxRangeDays;
 
-    public EventService(EventsClient eventApi, CurrencyService currencyService) {
+    public EventService(EventsClient eventApi, CurrencyService currencyService,
+                        @Qualifier(ExecutorConfig.EVENTS_EXECUTOR) Executor executorService,
+                        AsyncCache<LocalDate, List<Event>> eventDayCache,
+                        AsyncCache<EventPriceIndex.Window, EventPriceIndex> eventIndexCache,
+                        @Value("${events.max-range-days:31}") long maxRangeDays) {
         this.eventApi = eventApi;
         this.currencyService = currencyService;
+        this.executorService = executorService;
+        this.eventDayCache = eventDayCache;
+        this.eventIndexCache = eventIndexCache;
+        this.maxRangeDays = maxRangeDays;
     }
 
     public CompletableFuture<EventResponse> getFilteredEvents(double budget, String currency, LocalDate dateFrom, LocalDate dateTo) {
@@ -42,22 +59,22 @@ public class EventService {
             dateTo = nowLocalDate;
             logger.info("No date range provided. Defaulting to last 7 days: from {} to {}", dateFrom, dateTo);
         }
+        validateRange(dateFrom, dateTo);
 
-        CompletableFuture<List<Event>> eventsFuture = getEvents(dateFrom, dateTo);
+        List<CompletableFuture<List<Event>>> buckets = dayBuckets(dateFrom, dateTo);
+        CompletableFuture<EventPriceIndex> indexFuture = eventIndexCache.get(new EventPriceIndex.Window(buckets),
+                (window, executor) -> assemble(window.buckets()).thenApply(EventPriceIndex::of));
 
-        CompletableFuture<Double> convertedBudgetFuture = CompletableFuture.supplyAsync(() -> {
-            CurrencyRateResponse currencyRateResponse = currencyService.getCurrencyRate(currency);
-            return currencyRateResponse.getRate().doubleValue() * budget;
-        }, executorService);
+        CompletableFuture<Double> convertedBudgetFuture = convertBudget(budget, currency);
 
-        return eventsFuture.thenCombine(convertedBudgetFuture, (events, convertedBudget) -> {
-            if (events.isEmpty()) {
+        return indexFuture.thenCombine(convertedBudgetFuture, (index, convertedBudget) -> {
+            if (index.size() == 0) {
                 throw new ServiceException("No events found for the specified date range.");
             }
 
             logger.info("Converted budget: {}", convertedBudget);
-            events.forEach(event -> event.setParsedPrice(parsePrice(event.getPrice(), event.isFree())));
-            List<Event> filteredEvents = filterEventsByBudget(events, convertedBudget);
+            List<Event> filteredEvents = index.withinBudget(convertedBudget);
+            logger.info("Events within budget {}: {} of {}", convertedBudget, filteredEvents.size(), index.size());
 
             EventResponse eventResponse = new EventResponse();
             eventResponse.setCount(filteredEvents.size());
@@ -72,61 +89,149 @@ public class EventService {
         });
     }
 
-    public CompletableFuture<List<Event>> getEvents(LocalDate dateFrom, LocalDate dateTo) {
-        return CompletableFuture.supplyAsync(() -> {
-                    Long dateFromEpoch = dateFrom.atStartOfDay(ZoneId.of("UTC")).toInstant().getEpochSecond();
-                    Long dateToEpoch = dateTo.atStartOfDay(ZoneId.of("UTC")).toInstant().getEpochSecond();
-                    logger.info("Fetching events from API with dates: from {} to {}", dateFromEpoch, dateToEpoch);
+    /**
+     * Потоковый вариант {@link #getFilteredEvents}: события отдаются по мере готовности суточных корзин,
+     * не дожидаясь всего окна. Период проверяется и бюджет переводится до создания потока: с первым элементом
+     * уходят заголовки, и ошибки ЦБ или параметров после этого уже не вернуть обычным ответом с кодом.
+     */
+    public Flux<Event> streamFilteredEvents(double budget, String currency, LocalDate dateFrom, LocalDate dateTo) {
+        if (dateFrom == null && dateTo == null) {
+            dateTo = LocalDate.now();
+            dateFrom = dateTo.minusDays(7);
+        }
+        validateRange(dateFrom, dateTo);
+        LocalDate windowFrom = dateFrom;
+        LocalDate windowTo = dateTo;
+        double convertedBudget = currencyService.getCurrencyRate(currency).getRate().doubleValue() * budget;
+
+        return Flux.create(sink -> {
+            Set<Integer> seenIds = ConcurrentHashMap.newKeySet();
+            List<CompletableFuture<Void>> emitted = new ArrayList<>();
+            for (CompletableFuture<List<Event>> bucket : dayBuckets(windowFrom, windowTo)) {
+                emitted.add(bucket.thenAccept(events -> {
+                    for (Event event : events) {
+                        if (sink.isCancelled()) {
+                            return;
+                        }
+                        if (event.fitsBudget(convertedBudget) && seenIds.add(event.getId())) {
+                            sink.next(event);
+                        }
+                    }
+                }));
+            }
+            // Клиент отключился: перестаём ждать корзины. Сами корзины общие с кешем и не отменяются.
+            sink.onCancel(() -> emitted.forEach(future -> future.cancel(false)));
+
+            CompletableFuture.allOf(emitted.toArray(new CompletableFuture[0])).whenComplete((ignored, ex) -> {
+                if (sink.isCancelled()) {
+                    return;
+                }
+                if (ex != null) {
+                    logger.error("Error occurred while streaming events: {}", ex.getMessage());
+                    sink.error(new ServiceException("Failed to stream events", ex));
+                } else {
+                    sink.complete();
+                }
+            });
+        });
+    }
 
-                    EventResponse response = eventApi.getEvents(dateFromEpoch, dateToEpoch);
-                    logger.info("Received response: {}", response);
+    public CompletableFuture<List<Event>> getEvents(LocalDate dateFrom, LocalDate dateTo) {
+        validateRange(dateFrom, dateTo);
+        return assemble(dayBuckets(dateFrom, dateTo));
+    }
 
-                    if (response == null || response.getResults() == null || response.getResults().isEmpty()) {
+    private CompletableFuture<List<Event>> assemble(List<CompletableFuture<List<Event>>> days) {
+        return CompletableFuture.allOf(days.toArray(new CompletableFuture[0]))
+                .thenApply(ignored -> {
+                    Set<Integer> seenIds = new HashSet<>();
+                    List<Event> events = new ArrayList<>();
+                    for (CompletableFuture<List<Event>> bucket : days) {
+                        for (Event event : bucket.join()) {
+                            if (seenIds.add(event.getId())) {
+                                events.add(event);
+                            }
+                        }
+                    }
+                    if (events.isEmpty()) {
                         logger.error("Received null or empty response from API");
                         throw new ServiceException("No events found for the specified date range.");
                     }
-
-                    return response.getResults().stream().map(result -> {
-                        boolean isFree = result.isFree();
-                        String price = result.getPrice();
-                        Double parsedPrice = parsePrice(price, isFree);
-
-                        logger.info("Event details - ID: {}, Title: {}, IsFree: {}, Price: {}, ParsedPrice: {}",
-                                result.getId(), result.getTitle(), isFree, price, parsedPrice);
-
-                        return new Event(result.getId(), result.getTitle(), isFree, price, parsedPrice);
-                    }).collect(Collectors.toList());
-                }, executorService)
+                    logger.info("Assembled {} events from {} day buckets", events.size(), days.size());
+                    return events;
+                })
                 .exceptionally(ex -> {
                     logger.error("Error fetching events: {}", ex.getMessage());
                     throw new ServiceException("Failed to fetch events", ex);
                 });
     }
 
-    private List<Event> filterEventsByBudget(List<Event> events, double budget) {
-        logger.info("Total events before filtering: {}", events.size());
-        List<Event> filteredEvents = events.stream()
-                .filter(event -> event.isFree() || (event.getParsedPrice() != null && event.getParsedPrice() <= budget))
-                .collect(Collectors.toList());
+    // Каждый день холодного окна — отдельная серия запросов в KudaGo и задачи в пуле events.executor:
+    // длина окна ограничена, чтобы один запрос не переполнил очередь пула.
+    private void validateRange(LocalDate dateFrom, LocalDate dateTo) {
+        if (dateFrom == null || dateTo == null || dateFrom.isAfter(dateTo)) {
+            throw new InvalidRequestException("Invalid date range - " + dateFrom + " to " + dateTo);
+        }
+        if (ChronoUnit.DAYS.between(dateFrom, dateTo) > maxRangeDays) {
+            throw new InvalidRequestException("Date range must not exceed " + maxRangeDays + " days");
+        }
+    }
+
+    // Окно собирается из суточных корзин UTC: из KudaGo запрашиваются только дни, которых нет в кеше.
+    private List<CompletableFuture<List<Event>>> dayBuckets(LocalDate dateFrom, LocalDate dateTo) {
+        List<CompletableFuture<List<Event>>> days = new ArrayList<>();
+        LocalDate day = dateFrom;
+        do {
+            days.add(eventDayCache.get(day, (bucket, executor) -> fetchDay(bucket)));
+            day = day.plusDays(1);
+        } while (day.isBefore(dateTo));
+        return days;
+    }
 
-        logger.info("Total events after filtering by budget {}: {}", budget, filteredEvents.size());
-        return filteredEvents;
+    private CompletableFuture<Double> convertBudget(double budget, String currency) {
+        return CompletableFuture.supplyAsync(() -> {
+            CurrencyRateResponse currencyRateResponse = currencyService.getCurrencyRate(currency);
+            return currencyRateResponse.getRate().doubleValue() * budget;
+        }, executorService);
     }
 
-    private Double parsePrice(String priceString, boolean isFree) {
-        if (priceString == null || priceString.isEmpty()) {
-            return isFree ? 0.0 : null;
-        }
+    private CompletableFuture<List<Event>> fetchDay(LocalDate day) {
+        long dateFromEpoch = day.atStartOfDay(ZoneOffset.UTC).toEpochSecond();
+        long dateToEpoch = day.plusDays(1).atStartOfDay(ZoneOffset.UTC).toEpochSecond();
+        logger.info("Fetching events from API with dates: from {} to {}", dateFromEpoch, dateToEpoch);
 
-        priceString = priceString.replaceAll("\\s+", "");
-        Matcher matcher = PRICE_PATTERN.matcher(priceString);
-        if (matcher.find()) {
-            logger.info("Parsed price from string '{}': {}", priceString, matcher.group());
-            return Double.parseDouble(matcher.group().replace(",", "."));
-        } else {
-            logger.warn("No valid price found in string '{}'. Returning null.", priceString);
-            return isFree ? 0.0 : null;
+        return CompletableFuture.supplyAsync(() -> eventApi.getEvents(dateFromEpoch, dateToEpoch, 1), executorService)
+                .thenCompose(firstPage -> {
+                    logger.info("Received response: {}", firstPage);
+
+                    if (firstPage == null || firstPage.getResults() == null || firstPage.getResults().isEmpty()) {
+                        return CompletableFuture.completedFuture(List.of());
+                    }
+
+                    // Зная count, остальные страницы запрашиваем параллельно; семафор клиента ограничивает число запросов.
+                    int pageCount = firstPage.pageCount(eventApi.getPageSize());
+                    List<CompletableFuture<List<Event>>> pages = new ArrayList<>(pageCount);
+                    pages.add(CompletableFuture.completedFuture(toEvents(firstPage)));
+                    for (int page = 2; page <= pageCount; page++) {
+                        int pageNumber = page;
+                        pages.add(CompletableFuture.supplyAsync(
+                                () -> toEvents(eventApi.getEvents(dateFromEpoch, dateToEpoch, pageNumber)), executorService));
+                    }
+
+                    return CompletableFuture.allOf(pages.toArray(new CompletableFuture[0]))
+                            .thenApply(ignored -> {
+                                List<Event> events = new ArrayList<>(firstPage.getCount());
+                                pages.forEach(page -> events.addAll(page.join()));
+                                logger.info("Fetched {} events for {} from {} pages", events.size(), day, pageCount);
+                                return List.copyOf(events);
+                            });
+                });
+    }
+
+    private List<Event> toEvents(EventResponse response) {
+        if (response == null || response.getResults() == null) {
+            return List.of();
         }
+        return response.getResults();
     }
 }
-
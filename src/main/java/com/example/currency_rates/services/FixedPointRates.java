@@ -0,0 +1,129 @@
+package com.example.currency_rates.services;
+
+import com.example.currency_rates.client.RateSnapshot;
+
+import java.math.BigDecimal;
+
+/**
+ * Курсы снимка в виде {@code unscaled * 10^-scale} в long для конвертации без BigDecimal.
+ * Повторяет точный расчёт {@link CurrencyService} шаг в шаг, включая округление HALF_UP
+ * до 4 знаков и затем до копеек, поэтому результаты совпадают с BigDecimal. Если
+ * промежуточное значение не помещается в long, возвращается {@link #OVERFLOW} и
+ * вызывающий считает через BigDecimal.
+ */
+final class FixedPointRates {
+
+    static final long OVERFLOW = Long.MIN_VALUE;
+
+    private static final int QUOTIENT_SCALE = 4;
+    private static final long[] POWERS_OF_TEN = new long[19];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private final RateSnapshot snapshot;
+    private final int rubOrdinal;
+    private final long[] units;
+    private final int[] scales;
+
+    private FixedPointRates(RateSnapshot snapshot, long[] units, int[] scales) {
+        this.snapshot = snapshot;
+        this.rubOrdinal = snapshot.size();
+        this.units = units;
+        this.scales = scales;
+    }
+
+    static FixedPointRates of(RateSnapshot snapshot) {
+        int size = snapshot.size();
+        long[] units = new long[size + 1];
+        int[] scales = new int[size + 1];
+        for (int i = 0; i < size; i++) {
+            BigDecimal rate = snapshot.getRate(i);
+            if (rate.scale() < 0 || rate.precision() > 18) {
+                units[i] = OVERFLOW;
+            } else {
+                units[i] = rate.unscaledValue().longValue();
+                scales[i] = rate.scale();
+            }
+        }
+        units[size] = 1;
+        return new FixedPointRates(snapshot, units, scales);
+    }
+
+    int ordinalOf(String code) {
+        if ("RUB".equals(code)) {
+            return rubOrdinal;
+        }
+        return snapshot.ordinalOf(code);
+    }
+
+    /**
+     * Сумма {@code amountUnits * 10^-amountScale} в копейках валюты {@code to}; сумма и курсы положительны.
+     */
+    long convertToCents(long amountUnits, int amountScale, int from, int to) {
+        if (units[from] == OVERFLOW || units[to] == OVERFLOW) {
+            return OVERFLOW;
+        }
+
+        if (from == rubOrdinal) {
+            long quotient = divide(amountUnits, amountScale, units[to], scales[to]);
+            return quotient == OVERFLOW ? OVERFLOW : roundHalfUp(quotient, 100);
+        }
+
+        long product = multiply(amountUnits, units[from]);
+        if (product == OVERFLOW) {
+            return OVERFLOW;
+        }
+        int productScale = amountScale + scales[from];
+
+        if (to == rubOrdinal) {
+            if (productScale >= 2) {
+                return productScale - 2 < POWERS_OF_TEN.length ? roundHalfUp(product, POWERS_OF_TEN[productScale - 2]) : OVERFLOW;
+            }
+            return multiply(product, POWERS_OF_TEN[2 - productScale]);
+        }
+
+        long quotient = divide(product, productScale, units[to], scales[to]);
+        return quotient == OVERFLOW ? OVERFLOW : roundHalfUp(quotient, 100);
+    }
+
+    static String formatCents(long cents) {
+        long whole = cents / 100;
+        int fraction = (int) (cents % 100);
+        return whole + (fraction < 10 ? ".0" : ".") + fraction;
+    }
+
+    // (n * 10^-ns) / (d * 10^-ds) с округлением HALF_UP до QUOTIENT_SCALE знаков.
+    private static long divide(long numerator, int numeratorScale, long denominator, int denominatorScale) {
+        int exponent = denominatorScale - numeratorScale + QUOTIENT_SCALE;
+        if (Math.abs(exponent) >= POWERS_OF_TEN.length) {
+            return OVERFLOW;
+        }
+        if (exponent >= 0) {
+            numerator = multiply(numerator, POWERS_OF_TEN[exponent]);
+        } else {
+            denominator = multiply(denominator, POWERS_OF_TEN[-exponent]);
+        }
+        if (numerator == OVERFLOW || denominator == OVERFLOW) {
+            return OVERFLOW;
+        }
+        return roundHalfUp(numerator, denominator);
+    }
+
+    private static long multiply(long x, long y) {
+        long low = x * y;
+        // Старшие 64 бита 128-битного произведения должны быть расширением знака младших.
+        return Math.multiplyHigh(x, y) == (low >> 63) ? low : OVERFLOW;
+    }
+
+    // Для неотрицательных n и положительного d; r >= d - r вместо 2r >= d не переполняется.
+    private static long roundHalfUp(long n, long d) {
+        long quotient = n / d;
+        long remainder = n % d;
+        return remainder >= d - remainder ? quotient + 1 : quotient;
+    }
+}
@@ -0,0 +1,247 @@
+package com.example.currency_rates.services;
+
+import com.example.currency_rates.client.RateSnapshot;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * История курсов вне кучи: матрица «валюта × день» из long-значений в memory-mapped файле.
+ * Раскладка по валютам — ряд одной валюты лежит подряд, поэтому выборка по периоду — проход по непрерывному
+ * участку, а точка — одно чтение по смещению. Курс за одну единицу хранится умноженным на 10^10, 0 — нет курса.
+ * Для каждого календарного дня отдельно помнится дата {@code ValCurs}, из которой он заполнен.
+ */
+@Component
+public class RateColumnStore {
+    private static final Logger logger = LoggerFactory.getLogger(RateColumnStore.class);
+
+    static final int SCALE = 10;
+
+    private static final int MAGIC = 0x52434f4c; // "RCOL"
+    private static final int HEADER_SIZE = 16;
+    private static final int CODE_SLOT = 4;
+    private static final long EMPTY = 0;
+    private static final VarHandle DAY_MARKER = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+
+    private final LocalDate firstDay;
+    private final int dayCapacity;
+    private final int currencyCapacity;
+    private final int dayIndexOffset;
+    private final ByteBuffer buffer;
+    private final LongBuffer matrix;
+    private final Map<String, Integer> ordinals = new ConcurrentHashMap<>();
+
+    public RateColumnStore(@Value("${currency.history.store.file:}") String file,
+                           @Value("${currency.history.store.first-day:1992-07-01}") LocalDate firstDay,
+                           @Value("${currency.history.store.day-capacity:16384}") int dayCapacity,
+                           @Value("${currency.history.store.currency-capacity:64}") int currencyCapacity) {
+        this.firstDay = firstDay;
+        this.dayCapacity = dayCapacity;
+        this.currencyCapacity = currencyCapacity;
+        this.dayIndexOffset = HEADER_SIZE + currencyCapacity * CODE_SLOT;
+        int matrixOffset = align8(dayIndexOffset + dayCapacity * Integer.BYTES);
+        long size = matrixOffset + (long) currencyCapacity * dayCapacity * Long.BYTES;
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Rate column store of " + size + " bytes does not fit a single mapping");
+        }
+
+        this.buffer = file.isBlank() ? ByteBuffer.allocateDirect((int) size) : map(Path.of(file), (int) size);
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != (int) firstDay.toEpochDay()
+                || buffer.getInt(8) != dayCapacity || buffer.getInt(12) != currencyCapacity) {
+            // Новый файл уже заполнен нулями; чужую раскладку приходится стирать целиком.
+            if (buffer.getInt(0) != 0) {
+                logger.warn("Rate column store {} has a different layout, starting empty", file);
+                clear();
+            }
+            writeHeader();
+        }
+        this.matrix = buffer.slice(matrixOffset, (int) (size - matrixOffset)).asLongBuffer();
+        for (int ordinal = 0; ordinal < currencyCapacity; ordinal++) {
+            String code = readCode(ordinal);
+            if (code == null) {
+                break;
+            }
+            ordinals.put(code, ordinal);
+        }
+    }
+
+    public LocalDate firstDay() {
+        return firstDay;
+    }
+
+    public LocalDate lastDay() {
+        return firstDay.plusDays(dayCapacity - 1L);
+    }
+
+    /**
+     * Дата {@code ValCurs}, которой заполнен день, или {@code null}, если день ещё не загружался.
+     */
+    public LocalDate sourceDate(LocalDate day) {
+        int marker = (int) DAY_MARKER.getAcquire(buffer, dayIndexOffset + dayIndex(day) * Integer.BYTES);
+        return marker == 0 ? null : LocalDate.ofEpochDay(marker);
+    }
+
+    /**
+     * Курс одной единицы валюты на календарный день или {@code null}, если его нет.
+     */
+    public BigDecimal getRate(String code, LocalDate day) {
+        Integer ordinal = ordinals.get(code);
+        if (ordinal == null) {
+            return null;
+        }
+        long value = matrix.get(ordinal * dayCapacity + dayIndex(day));
+        return value == EMPTY ? null : BigDecimal.valueOf(value, SCALE).stripTrailingZeros();
+    }
+
+    /**
+     * Записывает выгрузку, действовавшую в календарный день. Значения пишутся до отметки дня,
+     * поэтому читатель, увидевший отметку, видит и курсы.
+     */
+    public synchronized void put(LocalDate day, RateSnapshot snapshot) {
+        int index = dayIndex(day);
+        for (int i = 0; i < snapshot.size(); i++) {
+            int ordinal = ordinalFor(snapshot.getCode(i));
+            if (ordinal >= 0) {
+                matrix.put(ordinal * dayCapacity + index, toScaled(snapshot.getRate(i)));
+            }
+        }
+        LocalDate source = snapshot.getDate() != null ? snapshot.getDate() : day;
+        DAY_MARKER.setRelease(buffer, dayIndexOffset + index * Integer.BYTES, (int) source.toEpochDay());
+    }
+
+    /**
+     * Минимум, максимум и среднее по заполненным дням периода; {@code null}, если таких дней нет.
+     */
+    public RangeStats scan(String code, LocalDate from, LocalDate to) {
+        Integer ordinal = ordinals.get(code);
+        if (ordinal == null) {
+            return null;
+        }
+        int start = ordinal * dayCapacity + dayIndex(from);
+        int end = ordinal * dayCapacity + dayIndex(to);
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        long sum = 0;
+        int count = 0;
+        for (int i = start; i <= end; i++) {
+            long value = matrix.get(i);
+            if (value != EMPTY) {
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+                sum += value;
+                count++;
+            }
+        }
+        return count == 0 ? null : new RangeStats(min, max, sum, count);
+    }
+
+    static long toScaled(BigDecimal rate) {
+        return rate.movePointRight(SCALE).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    @PreDestroy
+    public void close() {
+        if (buffer instanceof MappedByteBuffer mapped) {
+            mapped.force();
+        }
+    }
+
+    /**
+     * Итоги прохода по периоду в масштабе хранилища: значения — курс, умноженный на 10^10.
+     */
+    public record RangeStats(long min, long max, long sum, int count) {
+
+        public BigDecimal minRate() {
+            return BigDecimal.valueOf(min, SCALE).stripTrailingZeros();
+        }
+
+        public BigDecimal maxRate() {
+            return BigDecimal.valueOf(max, SCALE).stripTrailingZeros();
+        }
+
+        public BigDecimal averageRate() {
+            return BigDecimal.valueOf(sum, SCALE).divide(BigDecimal.valueOf(count), SCALE, RoundingMode.HALF_UP).stripTrailingZeros();
+        }
+    }
+
+    private int dayIndex(LocalDate day) {
+        long index = day.toEpochDay() - firstDay.toEpochDay();
+        if (index < 0 || index >= dayCapacity) {
+            throw new IllegalArgumentException("Date " + day + " is outside rate history " + firstDay + " - " + lastDay());
+        }
+        return (int) index;
+    }
+
+    // Новая валюта получает следующий свободный слот; -1, если слоты кончились.
+    private int ordinalFor(String code) {
+        Integer ordinal = ordinals.get(code);
+        if (ordinal != null) {
+            return ordinal;
+        }
+        int next = ordinals.size();
+        if (next >= currencyCapacity || code.length() != 3) {
+            logger.warn("No slot for currency {} in rate column store", code);
+            return -1;
+        }
+        byte[] bytes = code.getBytes(StandardCharsets.US_ASCII);
+        buffer.put(HEADER_SIZE + next * CODE_SLOT, bytes);
+        ordinals.put(code, next);
+        return next;
+    }
+
+    private String readCode(int ordinal) {
+        byte[] bytes = new byte[3];
+        buffer.get(HEADER_SIZE + ordinal * CODE_SLOT, bytes);
+        return bytes[0] == 0 ? null : new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    private void clear() {
+        for (int i = 0; i < buffer.capacity(); i += Long.BYTES) {
+            buffer.putLong(i, 0);
+        }
+    }
+
+    private void writeHeader() {
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, (int) firstDay.toEpochDay());
+        buffer.putInt(8, dayCapacity);
+        buffer.putInt(12, currencyCapacity);
+    }
+
+    private static MappedByteBuffer map(Path file, int size) {
+        try {
+            Path dir = file.toAbsolutePath().getParent();
+            Files.createDirectories(dir);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot map rate column store " + file, e);
+        }
+    }
+
+    private static int align8(int offset) {
+        return (offset + 7) & ~7;
+    }
+}
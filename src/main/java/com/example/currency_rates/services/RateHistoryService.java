@@ -0,0 +1,170 @@
+package com.example.currency_rates.services;
+
+import com.example.currency_rates.client.CurrencyClient;
+import com.example.currency_rates.client.RateSnapshot;
+import com.example.currency_rates.client.RateSnapshotFetchedEvent;
+import com.example.currency_rates.config.ExecutorConfig;
+import com.example.currency_rates.exception.InvalidRequestException;
+import com.example.currency_rates.exception.ServiceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * История курсов для {@code /rates/{code}?date=} и {@code /rates/{code}/history}: оба читают {@link RateColumnStore},
+ * а недостающие дни загружаются из ЦБ один раз, кто бы их ни запросил первым.
+ */
+@Service
+public class RateHistoryService {
+    private static final Logger logger = LoggerFactory.getLogger(RateHistoryService.class);
+
+    private final CurrencyClient currencyClient;
+    private final RateColumnStore rateStore;
+    private final Executor executor;
+    private final Duration loadTimeout;
+    private final Map<LocalDate, CompletableFuture<Void>> loading = new ConcurrentHashMap<>();
+
+    public RateHistoryService(CurrencyClient currencyClient, RateColumnStore rateStore,
+                              @Qualifier(ExecutorConfig.CBR_HISTORY_EXECUTOR) Executor executor,
+                              @Value("${currency.history.load-timeout:30s}") Duration loadTimeout) {
+        this.currencyClient = currencyClient;
+        this.rateStore = rateStore;
+        this.executor = executor;
+        this.loadTimeout = loadTimeout;
+    }
+
+    /**
+     * Текущая выгрузка ложится в историю на свою дату {@code ValCurs}: на этот день ЦБ отдал бы её же.
+     * Запись — несколько десятков long в mmap-файл, поэтому идёт прямо в потоке загрузки; ошибка её не роняет.
+     */
+    @EventListener
+    public void onSnapshotFetched(RateSnapshotFetchedEvent event) {
+        RateSnapshot snapshot = event.snapshot();
+        LocalDate date = snapshot.getDate();
+        if (date == null || date.isBefore(rateStore.firstDay()) || date.isAfter(rateStore.lastDay())
+                || date.equals(rateStore.sourceDate(date))) {
+            return;
+        }
+        try {
+            rateStore.put(date, snapshot);
+            logger.info("Stored {} rates for {}", snapshot.size(), date);
+        } catch (RuntimeException e) {
+            logger.warn("Could not store rates for {}: {}", date, e.getMessage());
+        }
+    }
+
+    /**
+     * Курс одной единицы валюты, действовавший в календарный день; день, которого ещё нет в истории, загружается из ЦБ.
+     */
+    public Optional<BigDecimal> findRate(String code, LocalDate date) {
+        LocalDate today = LocalDate.now();
+        if (date.isBefore(rateStore.firstDay()) || date.isAfter(today)) {
+            throw new InvalidRequestException("Rate history is available from " + rateStore.firstDay() + " to " + today);
+        }
+        if (rateStore.sourceDate(date) == null) {
+            await(List.of(load(date)));
+        }
+        return Optional.ofNullable(rateStore.getRate(code, date));
+    }
+
+    /**
+     * Загружает выгрузку, действовавшую в день не позже сегодняшнего, и пишет её в историю. Одновременные запросы
+     * пересекающихся периодов ждут одну загрузку дня; неудачная загрузка не запоминается — повторы сдерживает
+     * circuit breaker ЦБ. Отменённая загрузка, которая ещё не начиналась, в ЦБ уже не пойдёт.
+     */
+    public CompletableFuture<Void> load(LocalDate day) {
+        CompletableFuture<Void> created = new CompletableFuture<>();
+        CompletableFuture<Void> existing = loading.putIfAbsent(day, created);
+        if (existing != null) {
+            return existing;
+        }
+        CompletableFuture<RateSnapshot> fetch;
+        try {
+            fetch = CompletableFuture.supplyAsync(() -> currencyClient.fetchCurrencies(day), executor);
+        } catch (RejectedExecutionException e) {
+            loading.remove(day, created);
+            created.completeExceptionally(new ServiceException("Too many rate history requests, try again later", e));
+            return created;
+        }
+        fetch.thenAccept(snapshot -> {
+                    if (snapshot != null) {
+                        rateStore.put(day, snapshot);
+                    }
+                })
+                .whenComplete((ignored, ex) -> {
+                    loading.remove(day, created);
+                    if (ex != null) {
+                        created.completeExceptionally(ex);
+                    } else {
+                        created.complete(null);
+                    }
+                });
+        created.whenComplete((ignored, ex) -> {
+            if (created.isCancelled()) {
+                loading.remove(day, created);
+                fetch.cancel(false);
+            }
+        });
+        return created;
+    }
+
+    /**
+     * Ждёт загрузки дней не дольше load-timeout. Первая же ошибка прерывает ожидание и отменяет остальные загрузки:
+     * без ЦБ период всё равно не собрать, а поток запроса не должен ждать каждый день по таймауту.
+     */
+    public void await(List<CompletableFuture<Void>> loads) {
+        if (loads.isEmpty()) {
+            return;
+        }
+        CompletableFuture<Void> failed = new CompletableFuture<>();
+        for (CompletableFuture<Void> load : loads) {
+            load.whenComplete((ignored, ex) -> {
+                if (ex != null) {
+                    failed.completeExceptionally(ex);
+                }
+            });
+        }
+        try {
+            CompletableFuture.anyOf(CompletableFuture.allOf(loads.toArray(new CompletableFuture[0])), failed)
+                    .get(loadTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | CancellationException e) {
+            loads.forEach(load -> load.cancel(false));
+            Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+            while (cause instanceof CompletionException && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            logger.error("Error fetching rate history: {}", cause.toString());
+            if (cause instanceof ServiceException serviceException) {
+                throw serviceException;
+            }
+            throw new ServiceException("Error retrieving historical currency rates from the service", cause);
+        } catch (TimeoutException e) {
+            loads.forEach(load -> load.cancel(false));
+            logger.error("Rate history was not loaded within {}", loadTimeout);
+            throw new ServiceException("Error retrieving historical currency rates from the service", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            loads.forEach(load -> load.cancel(false));
+            throw new ServiceException("Error retrieving historical currency rates from the service", e);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.currency_rates.services;
+
+import com.example.currency_rates.dto.CurrencyRateSeriesResponse;
+import com.example.currency_rates.exception.CurrencyNotFoundException;
+import com.example.currency_rates.exception.InvalidRequestException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+@Service
+public class RateSeriesService {
+    private static final Logger logger = LoggerFactory.getLogger(RateSeriesService.class);
+
+    private static final String RUB_CODE = "RUB";
+
+    private final RateColumnStore rateStore;
+    private final RateHistoryService rateHistoryService;
+    private final long maxRangeDays;
+
+    public RateSeriesService(RateColumnStore rateStore, RateHistoryService rateHistoryService,
+                             @Value("${currency.history.max-range-days:366}") long maxRangeDays) {
+        this.rateStore = rateStore;
+        this.rateHistoryService = rateHistoryService;
+        this.maxRangeDays = maxRangeDays;
+    }
+
+    /**
+     * Курсы валюты за период. Курс дня не меняется, включая сегодняшний: каждый день загружается из ЦБ один раз,
+     * параллельно с остальными, и дальше читается из {@link RateColumnStore}. Текущий снимок для «сегодня» не годится:
+     * после публикации курсов на завтра его дата {@code ValCurs} — уже завтрашняя.
+     */
+    public CurrencyRateSeriesResponse getRateSeries(String code, LocalDate from, LocalDate to) {
+        CurrencyService.validateCurrencyCode(code);
+        LocalDate today = LocalDate.now();
+        if (from == null || to == null || from.isAfter(to) || from.isAfter(today)) {
+            throw new InvalidRequestException("Invalid date range - " + from + " to " + to);
+        }
+        if (to.isAfter(today)) {
+            to = today;
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxRangeDays) {
+            throw new InvalidRequestException("Date range must not exceed " + maxRangeDays + " days");
+        }
+        if (from.isBefore(rateStore.firstDay()) || to.isAfter(rateStore.lastDay())) {
+            throw new InvalidRequestException("Rate history is available from " + rateStore.firstDay() + " to " + rateStore.lastDay());
+        }
+        // Рубль к рублю всегда 1: ряд из одной точки, в ЦБ ходить незачем.
+        if (RUB_CODE.equals(code)) {
+            return new CurrencyRateSeriesResponse(code, List.of(from), List.of(BigDecimal.ONE), BigDecimal.ONE, BigDecimal.ONE, BigDecimal.ONE);
+        }
+
+        List<CompletableFuture<Void>> loads = new ArrayList<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            if (rateStore.sourceDate(day) == null) {
+                loads.add(rateHistoryService.load(day));
+            }
+        }
+        rateHistoryService.await(loads);
+        if (!loads.isEmpty()) {
+            logger.info("Loaded {} days of rate history for {} - {}", loads.size(), from, to);
+        }
+
+        // На выходные ЦБ отдаёт пятничную выгрузку: одна дата ValCurs попадает в ряд один раз.
+        List<LocalDate> dates = new ArrayList<>();
+        List<BigDecimal> rates = new ArrayList<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            addPoint(dates, rates, rateStore.sourceDate(day), rateStore.getRate(code, day));
+        }
+        if (dates.isEmpty()) {
+            throw new CurrencyNotFoundException("Currency not found - " + code);
+        }
+
+        RateColumnStore.RangeStats stats = rateStore.scan(code, from, to);
+        return new CurrencyRateSeriesResponse(code, dates, rates, stats.minRate(), stats.maxRate(), stats.averageRate());
+    }
+
+    private static void addPoint(List<LocalDate> dates, List<BigDecimal> rates, LocalDate date, BigDecimal rate) {
+        if (rate == null || (!dates.isEmpty() && Objects.equals(dates.get(dates.size() - 1), date))) {
+            return;
+        }
+        dates.add(date);
+        rates.add(rate);
+    }
+}
@@ -1,29 +1,29 @@
 package com.example.currency_rates.services;
 
-import com.example.currency_rates.client.EventsClient;
+import com.example.currency_rates.client.ReactiveEventsClient;
 import com.example.currency_rates.dto.Event;
 import com.example.currency_rates.dto.EventResponse;
+import com.example.currency_rates.exception.InvalidRequestException;
 import com.example.currency_rates.exception.ServiceException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.time.LocalDate;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 @Service
 public class ReactiveEventService {
-    private final EventsClient eventApi;
+    private final ReactiveEventsClient eventApi;
     private final CurrencyService currencyService;
     private static final Logger logger = LoggerFactory.getLogger(ReactiveEventService.class);
-    private static final Pattern PRICE_PATTERN = Pattern.compile("[\\d.,]+");
 
-    public ReactiveEventService(EventsClient eventApi, CurrencyService currencyService) {
+    public ReactiveEventService(ReactiveEventsClient eventApi, CurrencyService currencyService) {
         this.eventApi = eventApi;
         this.currencyService = currencyService;
     }
@@ -44,18 +44,11 @@ public class ReactiveEventService {
                     return new ServiceException("Failed to fetch events", ex);
                 });
 
-        Mono<Double> convertedBudgetMono = Mono.fromCallable(() -> {
-            double rate = currencyService.getCurrencyRate(currency).getRate().doubleValue();
-            logger.info("Currency rate for {}: {}", currency, rate);
-            return rate * budget;
-        });
-
-        return Mono.zip(eventsMono, convertedBudgetMono)
+        return Mono.zip(eventsMono, convertBudget(budget, currency))
                 .flatMap(tuple -> {
                     List<Event> events = tuple.getT1();
                     double convertedBudget = tuple.getT2();
                     logger.info("Converted budget: {}", convertedBudget);
-                    events.forEach(event -> event.setParsedPrice(parsePrice(event.getPrice(), event.isFree())));
                     List<Event> filteredEvents = filterEventsByBudget(events, convertedBudget);
                     logger.info("Filtered events: {}", filteredEvents.size());
 
@@ -70,59 +63,86 @@ public class ReactiveEventService {
                 });
     }
 
+    /**
+     * Потоковый вариант {@link #getFilteredEvents}: каждая страница KudaGo фильтруется и отдаётся сразу,
+     * весь результат в памяти не собирается. Период проверяется и бюджет переводится до создания потока:
+     * после первого элемента ошибку ЦБ или параметров уже не вернуть обычным ответом с кодом.
+     */
+    public Flux<Event> streamFilteredEvents(double budget, String currency, LocalDate dateFrom, LocalDate dateTo) {
+        if (dateFrom == null && dateTo == null) {
+            dateTo = LocalDate.now();
+            dateFrom = dateTo.minusDays(7);
+        }
+        if (dateFrom == null || dateTo == null || dateFrom.isAfter(dateTo)) {
+            throw new InvalidRequestException("Invalid date range - " + dateFrom + " to " + dateTo);
+        }
+        double convertedBudget = currencyService.getCurrencyRate(currency).getRate().doubleValue() * budget;
+
+        return getPages(dateFrom, dateTo)
+                .concatMapIterable(page -> filterEventsByBudget(page.getResults(), convertedBudget))
+                // Страницы запрашиваются параллельно, и при сдвиге выдачи событие может попасть на две.
+                .distinct(Event::getId)
+                .onErrorMap(ex -> !(ex instanceof ServiceException), ex -> {
+                    logger.error("Error occurred while streaming events: {}", ex.getMessage());
+                    return new ServiceException("Failed to stream events", ex);
+                });
+    }
+
     private Mono<List<Event>> getEvents(LocalDate dateFrom, LocalDate dateTo) {
-        return Mono.fromCallable(() -> {
-            Long dateFromEpoch = dateFrom.atStartOfDay(ZoneId.of("UTC")).toInstant().getEpochSecond();
-            Long dateToEpoch = dateTo.atStartOfDay(ZoneId.of("UTC")).toInstant().getEpochSecond();
-            logger.info("Fetching events from API with dates: from {} to {}", dateFromEpoch, dateToEpoch);
+        return getPages(dateFrom, dateTo)
+                .switchIfEmpty(Mono.defer(() -> {
+                    logger.error("Received null or empty response from API");
+                    return Mono.error(new ServiceException("No events found for the specified date range."));
+                }))
+                .flatMapIterable(EventResponse::getResults)
+                .collectList()
+                .onErrorMap(ex -> {
+                    logger.error("Error fetching events from API: {}", ex.getMessage());
+                    return new ServiceException("Failed to fetch events from API", ex);
+                });
+    }
 
-            EventResponse response = eventApi.getEvents(dateFromEpoch, dateToEpoch);
-            logger.info("Received response: {}", response);
+    private Flux<EventResponse> getPages(LocalDate dateFrom, LocalDate dateTo) {
+        long dateFromEpoch = dateFrom.atStartOfDay(ZoneId.of("UTC")).toInstant().getEpochSecond();
+        long dateToEpoch = dateTo.atStartOfDay(ZoneId.of("UTC")).toInstant().getEpochSecond();
+        logger.info("Fetching events from API with dates: from {} to {}", dateFromEpoch, dateToEpoch);
 
-            if (response == null || response.getResults() == null || response.getResults().isEmpty()) {
-                logger.error("Received null or empty response from API");
-                throw new ServiceException("No events found for the specified date range.");
-            }
+        return eventApi.getEvents(dateFromEpoch, dateToEpoch, 1)
+                .flatMapMany(firstPage -> {
+                    logger.info("Received response: {}", firstPage);
 
-            return response.getResults().stream().map(result -> {
-                boolean isFree = result.isFree();
-                String price = result.getPrice();
-                Double parsedPrice = parsePrice(price, isFree);
+                    if (firstPage.getResults() == null || firstPage.getResults().isEmpty()) {
+                        return Flux.empty();
+                    }
 
-                logger.info("Event details - ID: {}, Title: {}, IsFree: {}, Price: {}, ParsedPrice: {}",
-                        result.getId(), result.getTitle(), isFree, price, parsedPrice);
+                    int pageCount = firstPage.pageCount(eventApi.getPageSize());
+                    Flux<EventResponse> remainingPages = Flux.range(2, pageCount - 1)
+                            .flatMap(page -> eventApi.getEvents(dateFromEpoch, dateToEpoch, page),
+                                    Math.max(1, eventApi.getMaxConcurrentRequests()));
+                    return Flux.concat(Mono.just(firstPage), remainingPages);
+                })
+                .filter(page -> page.getResults() != null);
+    }
 
-                return new Event(result.getId(), result.getTitle(), isFree, price, parsedPrice);
-            }).collect(Collectors.toList());
-        }).onErrorMap(ex -> {
-            logger.error("Error fetching events from API: {}", ex.getMessage());
-            return new ServiceException("Failed to fetch events from API", ex);
-        });
+    // Курс почти всегда берётся из кеша, но при промахе уходит в ЦБ блокирующим вызовом.
+    private Mono<Double> convertBudget(double budget, String currency) {
+        return Mono.fromCallable(() -> {
+            double rate = currencyService.getCurrencyRate(currency).getRate().doubleValue();
+            logger.info("Currency rate for {}: {}", currency, rate);
+            return rate * budget;
+        }).subscribeOn(Schedulers.boundedElastic());
     }
 
     private List<Event> filterEventsByBudget(List<Event> events, double budget) {
         logger.info("Total events before filtering: {}", events.size());
-        List<Event> filteredEvents = events.stream()
-                .filter(event -> event.isFree() || (event.getParsedPrice() != null && event.getParsedPrice() <= budget))
-                .collect(Collectors.toList());
+        List<Event> filteredEvents = new ArrayList<>();
+        for (Event event : events) {
+            if (event.fitsBudget(budget)) {
+                filteredEvents.add(event);
+            }
+        }
 
         logger.info("Total events after filtering by budget {}: {}", budget, filteredEvents.size());
         return filteredEvents;
     }
-
-    private Double parsePrice(String priceString, boolean isFree) {
-        if (priceString == null || priceString.isEmpty()) {
-            return isFree ? 0.0 : null;
-        }
-
-        priceString = priceString.replaceAll("\\s+", "");
-        Matcher matcher = PRICE_PATTERN.matcher(priceString);
-        if (matcher.find()) {
-            logger.info("Parsed price from string '{}': {}", priceString, matcher.group());
-            return Double.parseDouble(matcher.group().replace(",", "."));
-        } else {
-            logger.warn("No valid price found in string '{}'. Returning null.", priceString);
-            return isFree ? 0.0 : null;
-        }
-    }
 }
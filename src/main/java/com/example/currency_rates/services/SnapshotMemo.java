@@ -0,0 +1,32 @@
+package com.example.currency_rates.services;
+
+import com.example.currency_rates.client.RateSnapshot;
+
+import java.util.function.Function;
+
+/**
+ * Значение, вычисляемое один раз на снимок курсов. Кеш отдаёт один и тот же экземпляр снимка
+ * до следующего обновления, поэтому достаточно сравнения по ссылке; при гонке значение
+ * может посчитаться дважды, но оба результата равноценны.
+ */
+final class SnapshotMemo<T> {
+
+    private record Entry<T>(RateSnapshot snapshot, T value) {
+    }
+
+    private final Function<RateSnapshot, T> factory;
+    private volatile Entry<T> entry;
+
+    SnapshotMemo(Function<RateSnapshot, T> factory) {
+        this.factory = factory;
+    }
+
+    T get(RateSnapshot snapshot) {
+        Entry<T> current = entry;
+        if (current == null || current.snapshot() != snapshot) {
+            current = new Entry<>(snapshot, factory.apply(snapshot));
+            entry = current;
+        }
+        return current.value();
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.currency_rates.util;
+
+/**
+ * Разбор цены из свободного текста KudaGo за один проход по символам, без регулярных выражений и промежуточных строк.
+ * Первое число — минимальная цена; второе считается максимальной, только если числа разделены "-" или словом "до"
+ * ("от 500 до 1500", "500–1500 руб."). Пробел внутри числа допускается как разделитель разрядов ("1 500").
+ */
+public final class PriceParser {
+
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9,
+            1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18
+    };
+    private static final int MAX_DIGITS = 18;
+
+    private PriceParser() {
+    }
+
+    public static PriceRange parse(CharSequence text) {
+        if (text == null) {
+            return PriceRange.UNKNOWN;
+        }
+
+        int length = text.length();
+        double min = Double.NaN;
+        boolean rangeMarker = false;
+        int i = 0;
+
+        while (i < length) {
+            char c = text.charAt(i);
+            if (!isDigit(c)) {
+                if (!Double.isNaN(min) && isRangeMarker(text, i)) {
+                    rangeMarker = true;
+                }
+                i++;
+                continue;
+            }
+
+            long mantissa = 0;
+            int digits = 0;
+            int fractionDigits = 0;
+            int integerOverflow = 0;
+            boolean inFraction = false;
+            while (i < length) {
+                char d = text.charAt(i);
+                if (isDigit(d)) {
+                    if (digits < MAX_DIGITS) {
+                        mantissa = mantissa * 10 + (d - '0');
+                        digits++;
+                        if (inFraction) {
+                            fractionDigits++;
+                        }
+                    } else if (!inFraction) {
+                        integerOverflow++;
+                    }
+                    i++;
+                } else if (!inFraction && (d == '.' || d == ',') && i + 1 < length && isDigit(text.charAt(i + 1))) {
+                    inFraction = true;
+                    i++;
+                } else if (!inFraction && isGroupSeparator(d) && isDigitGroup(text, i + 1)) {
+                    i++;
+                } else {
+                    break;
+                }
+            }
+
+            double value = fractionDigits > 0
+                    ? mantissa / POWERS_OF_TEN[fractionDigits]
+                    : integerOverflow > 0 ? mantissa * Math.pow(10, integerOverflow) : mantissa;
+
+            if (Double.isNaN(min)) {
+                min = value;
+            } else {
+                return rangeMarker && value >= min ? new PriceRange(min, value) : new PriceRange(min, min);
+            }
+        }
+
+        return Double.isNaN(min) ? PriceRange.UNKNOWN : new PriceRange(min, min);
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isGroupSeparator(char c) {
+        return c == ' ' || c == '\u00A0' || c == '\u202F';
+    }
+
+    // Ровно три цифры после разделителя: "1 500", но не "500 1000".
+    private static boolean isDigitGroup(CharSequence text, int start) {
+        if (start + 3 > text.length()) {
+            return false;
+        }
+        for (int i = start; i < start + 3; i++) {
+            if (!isDigit(text.charAt(i))) {
+                return false;
+            }
+        }
+        return start + 3 == text.length() || !isDigit(text.charAt(start + 3));
+    }
+
+    private static boolean isRangeMarker(CharSequence text, int i) {
+        char c = text.charAt(i);
+        if (c == '-' || c == '\u2013' || c == '\u2014') {
+            return true;
+        }
+        if ((c == 'д' || c == 'Д') && i + 1 < text.length() && text.charAt(i + 1) == 'о') {
+            boolean wordStart = i == 0 || !Character.isLetter(text.charAt(i - 1));
+            boolean wordEnd = i + 2 >= text.length() || !Character.isLetter(text.charAt(i + 2));
+            return wordStart && wordEnd;
+        }
+        return false;
+    }
+}
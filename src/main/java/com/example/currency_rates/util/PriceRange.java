@@ -0,0 +1,31 @@
+package com.example.currency_rates.util;
+
+public final class PriceRange {
+
+    public static final PriceRange UNKNOWN = new PriceRange(Double.NaN, Double.NaN);
+
+    private final double min;
+    private final double max;
+
+    PriceRange(double min, double max) {
+        this.min = min;
+        this.max = max;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    public boolean isKnown() {
+        return !Double.isNaN(min);
+    }
+
+    @Override
+    public String toString() {
+        return isKnown() ? "PriceRange[" + min + ".." + max + "]" : "PriceRange[unknown]";
+    }
+}
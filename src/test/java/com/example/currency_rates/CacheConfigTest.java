@@ -0,0 +1,85 @@
+package com.example.currency_rates;
+
+import com.example.currency_rates.client.CurrencyClient;
+import com.example.currency_rates.client.RateSnapshot;
+import com.example.currency_rates.config.CacheConfig;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.cache.interceptor.SimpleKey;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.*;
+
+class CacheConfigTest {
+
+    @Test
+    void currencyCache_ShouldServePreviousSnapshotWhileRefreshing() {
+        CurrencyClient currencyClient = mock(CurrencyClient.class);
+        RateSnapshot first = RateSnapshot.builder(LocalDate.of(2024, 10, 1)).add("USD", 1, new BigDecimal("94.00")).build();
+        RateSnapshot second = RateSnapshot.builder(LocalDate.of(2024, 10, 2)).add("USD", 1, new BigDecimal("94.87")).build();
+        when(currencyClient.fetchCurrencies()).thenReturn(first, second);
+
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("currencyClient", currencyClient);
+
+        // Время и фоновое обновление под контролем теста: refresh-after наступает, когда сдвинут тикер,
+        // а загрузка выполняется в этом же потоке, когда тест запускает отложенные задачи.
+        AtomicLong nanos = new AtomicLong();
+        Queue<Runnable> background = new ArrayDeque<>();
+        LoadingCache<Object, Object> cache = CacheConfig.currencyCache(Caffeine.newBuilder().ticker(nanos::get).executor(background::add),
+                beanFactory.getBeanProvider(CurrencyClient.class), Duration.ofMinutes(1), Duration.ofHours(1), Duration.ofHours(72));
+
+        assertSame(first, cache.get(SimpleKey.EMPTY));
+        nanos.addAndGet(Duration.ofSeconds(59).toNanos());
+        assertSame(first, cache.get(SimpleKey.EMPTY));
+        verify(currencyClient, times(1)).fetchCurrencies();
+
+        nanos.addAndGet(Duration.ofSeconds(2).toNanos());
+        assertSame(first, cache.get(SimpleKey.EMPTY));
+        assertSame(first, cache.get(SimpleKey.EMPTY));
+        verify(currencyClient, times(1)).fetchCurrencies();
+
+        while (!background.isEmpty()) {
+            background.poll().run();
+        }
+        verify(currencyClient, times(2)).fetchCurrencies();
+        assertSame(second, cache.get(SimpleKey.EMPTY));
+    }
+
+    @Test
+    void currencyCache_ShouldExpireSnapshotAtMaxStaleSinceFetch() {
+        CurrencyClient currencyClient = mock(CurrencyClient.class);
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("currencyClient", currencyClient);
+
+        AtomicLong nanos = new AtomicLong();
+        Queue<Runnable> background = new ArrayDeque<>();
+        LoadingCache<Object, Object> cache = CacheConfig.currencyCache(Caffeine.newBuilder().ticker(nanos::get).executor(background::add),
+                beanFactory.getBeanProvider(CurrencyClient.class), Duration.ofHours(1), Duration.ofHours(24), Duration.ofHours(72));
+
+        // Прогрев снимком, загруженным 70 часов назад: до max-stale осталось 2 часа, а не expire-after.
+        RateSnapshot seed = RateSnapshot.builder(LocalDate.of(2024, 10, 1))
+                .fetchedAt(Instant.now().minus(Duration.ofHours(70)))
+                .add("USD", 1, new BigDecimal("94.00"))
+                .build();
+        cache.put(SimpleKey.EMPTY, seed);
+
+        nanos.addAndGet(Duration.ofMinutes(119).toNanos());
+        assertSame(seed, cache.getIfPresent(SimpleKey.EMPTY));
+
+        nanos.addAndGet(Duration.ofMinutes(2).toNanos());
+        assertNull(cache.getIfPresent(SimpleKey.EMPTY));
+        verifyNoInteractions(currencyClient);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.currency_rates;
+
+import com.example.currency_rates.client.CbrRatesParser;
+import com.example.currency_rates.client.RateSnapshot;
+import org.junit.jupiter.api.Test;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CbrRatesParserTest {
+
+    private final CbrRatesParser parser = new CbrRatesParser();
+
+    @Test
+    void parse_ShouldReadRatesFromWireMockPayload() throws Exception {
+        try (InputStream body = getClass().getClassLoader().getResourceAsStream("__files/currency.xml")) {
+            RateSnapshot snapshot = parser.parse(body);
+
+            assertEquals(LocalDate.of(2024, 10, 2), snapshot.getDate());
+            assertEquals(2, snapshot.size());
+            assertEquals(new BigDecimal("94.8700"), snapshot.getRate("USD"));
+            assertEquals(new BigDecimal("104.7424"), snapshot.getRate("EUR"));
+        }
+    }
+
+    @Test
+    void parse_ShouldHandleCbrEncodingDecimalCommaAndNominal() throws Exception {
+        String xml = "<?xml version=\"1.0\" encoding=\"windows-1251\"?>"
+                + "<ValCurs Date=\"02.10.2024\" name=\"Foreign Currency Market\">"
+                + "<Valute ID=\"R01820\"><NumCode>392</NumCode><CharCode>JPY</CharCode><Nominal>100</Nominal>"
+                + "<Name>Японских иен</Name><Value>65,4321</Value><VunitRate>0,654321</VunitRate></Valute>"
+                + "</ValCurs>";
+
+        RateSnapshot snapshot = parser.parse(new ByteArrayInputStream(xml.getBytes(Charset.forName("windows-1251"))));
+
+        assertEquals(1, snapshot.size());
+        assertEquals(100, snapshot.getNominal(0));
+        assertEquals(new BigDecimal("0.654321"), snapshot.getRate("JPY"));
+    }
+
+    @Test
+    void parse_ShouldRejectIncompleteValute() {
+        String xml = "<ValCurs Date=\"02.10.2024\"><Valute><CharCode>USD</CharCode></Valute></ValCurs>";
+
+        assertThrows(XMLStreamException.class,
+                () -> parser.parse(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8))));
+    }
+}
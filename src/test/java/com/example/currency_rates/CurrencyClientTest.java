@@ -2,7 +2,7 @@ package com.example.currency_rates;
 
 import com.example.currency_rates.client.CurrencyClient;
 import com.example.currency_rates.exception.ServiceException;
-import com.example.currency_rates.client.CBCurrencyResponse;
+import com.example.currency_rates.client.RateSnapshot;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -23,7 +23,7 @@ import org.testcontainers.utility.MountableFile;
 import java.io.File;
 import java.math.BigDecimal;
 import java.nio.file.Files;
-import java.util.List;
+import java.time.LocalDate;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -74,14 +74,15 @@ public class CurrencyClientTest {
 
     @Test
     public void testGetAllCurrencies_ShouldReturnCurrencyMap() {
-        List<CBCurrencyResponse> currencies = currencyClient.getCurrencies();
-
-        assertNotNull(currencies, "Currencies list should not be null");
-        assertEquals(2, currencies.size(), "Currencies list size should be 2");
-        assertEquals("USD", currencies.get(0).getCharCode(), "First currency should be USD");
-        assertEquals(new BigDecimal("94.8700"), new BigDecimal(currencies.get(0).getValue().replace(",", ".")), "USD rate should be 94.8700");
-        assertEquals("EUR", currencies.get(1).getCharCode(), "Second currency should be EUR");
-        assertEquals(new BigDecimal("104.7424"), new BigDecimal(currencies.get(1).getValue().replace(",", ".")), "EUR rate should be 104.7424");
+        RateSnapshot currencies = currencyClient.getCurrencies();
+
+        assertNotNull(currencies, "Currencies snapshot should not be null");
+        assertEquals(LocalDate.of(2024, 10, 2), currencies.getDate(), "Snapshot date should match ValCurs date");
+        assertEquals(2, currencies.size(), "Currencies snapshot size should be 2");
+        assertEquals("USD", currencies.getCode(0), "First currency should be USD");
+        assertEquals(new BigDecimal("94.8700"), currencies.getRate("USD"), "USD rate should be 94.8700");
+        assertEquals("EUR", currencies.getCode(1), "Second currency should be EUR");
+        assertEquals(new BigDecimal("104.7424"), currencies.getRate("EUR"), "EUR rate should be 104.7424");
     }
 
     @Test
@@ -1,12 +1,17 @@
 package com.example.currency_rates;
 
 import com.example.currency_rates.client.CBCurrencyResponse;
+import com.example.currency_rates.client.RateSnapshot;
 import com.example.currency_rates.controller.CurrencyController;
 import com.example.currency_rates.dto.ConvertCurrencyRequest;
 import com.example.currency_rates.dto.ConvertCurrencyResponse;
 import com.example.currency_rates.dto.CurrencyRateResponse;
+import com.example.currency_rates.dto.CurrencyRateSeriesResponse;
+import com.example.currency_rates.dto.CurrencyRatesResponse;
 import com.example.currency_rates.exception.InvalidRequestException;
 import com.example.currency_rates.services.CurrencyService;
+import com.example.currency_rates.services.RateSeriesService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.MockitoAnnotations;
@@ -17,9 +22,14 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -34,6 +44,9 @@ class CurrencyControllerTest {
     @MockBean
     private CurrencyService currencyService;
 
+    @MockBean
+    private RateSeriesService rateSeriesService;
+
     private List<CBCurrencyResponse> mockCurrencies;
 
     @BeforeEach
@@ -48,19 +61,47 @@ class CurrencyControllerTest {
 
     @Test
     void testGetCurrencyRate_Success() throws Exception {
-        CurrencyRateResponse expectedResponse = new CurrencyRateResponse("USD", new BigDecimal("70.50"));
-        when(currencyService.getCurrencyRate("USD")).thenReturn(expectedResponse);
+        byte[] expectedBody = new ObjectMapper().writeValueAsBytes(new CurrencyRateResponse("USD", new BigDecimal("70.50")));
+        when(currencyService.getCurrencyRateJson("USD")).thenReturn(expectedBody);
 
         mockMvc.perform(get("/currencies/rates/USD"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType("application/json"))
+                .andExpect(header().longValue("Content-Length", expectedBody.length))
                 .andExpect(jsonPath("$.currency").value("USD"))
                 .andExpect(jsonPath("$.rate").value("70.5"));
     }
 
+    @Test
+    void testGetCurrencyRate_OnDate() throws Exception {
+        byte[] expectedBody = new ObjectMapper().writeValueAsBytes(new CurrencyRateResponse("USD", new BigDecimal("90.10")));
+        when(currencyService.getCurrencyRateJson("USD", LocalDate.of(2024, 9, 2))).thenReturn(expectedBody);
+
+        mockMvc.perform(get("/currencies/rates/USD").param("date", "2024-09-02"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rate").value("90.1"));
+        verify(currencyService, never()).getCurrencyRateJson("USD");
+    }
+
+    @Test
+    void testGetCurrencyRateHistory_Success() throws Exception {
+        LocalDate from = LocalDate.of(2024, 9, 27);
+        LocalDate to = LocalDate.of(2024, 9, 30);
+        when(rateSeriesService.getRateSeries("USD", from, to)).thenReturn(new CurrencyRateSeriesResponse("USD",
+                List.of(LocalDate.of(2024, 9, 27), LocalDate.of(2024, 9, 28)),
+                List.of(new BigDecimal("92.71"), new BigDecimal("92.86")),
+                new BigDecimal("92.71"), new BigDecimal("92.86"), new BigDecimal("92.8225")));
+
+        mockMvc.perform(get("/currencies/rates/USD/history").param("from", "2024-09-27").param("to", "2024-09-30"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.dates[1]").value("2024-09-28"))
+                .andExpect(jsonPath("$.rates[1]").value(92.86))
+                .andExpect(jsonPath("$.average").value(92.8225));
+    }
+
     @Test
     void testGetCurrencyRate_NotFound() throws Exception {
-        when(currencyService.getCurrencyRate("ABC")).thenThrow(new InvalidRequestException("Unsupported currency code - ABC"));
+        when(currencyService.getCurrencyRateJson("ABC")).thenThrow(new InvalidRequestException("Unsupported currency code - ABC"));
 
         mockMvc.perform(get("/currencies/rates/ABC"))
                 .andExpect(status().isBadRequest())
@@ -97,4 +138,34 @@ class CurrencyControllerTest {
                 .andExpect(content().contentType("application/json"))
                 .andExpect(jsonPath("$.message").value("Unsupported currency code - INVALID"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGetCurrencyRates_ReturnsSnapshotWithETag() throws Exception {
+        RateSnapshot snapshot = RateSnapshot.builder(LocalDate.of(2024, 10, 2))
+                .add("USD", 1, new BigDecimal("70.50"))
+                .build();
+        when(currencyService.getCurrentSnapshot()).thenReturn(snapshot);
+        when(currencyService.getCurrencyRates(snapshot))
+                .thenReturn(new CurrencyRatesResponse(snapshot.getDate(), Map.of("USD", new BigDecimal("70.50"))));
+
+        mockMvc.perform(get("/currencies/rates"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"" + snapshot.getVersion() + "\""))
+                .andExpect(header().string("Cache-Control", org.hamcrest.Matchers.startsWith("max-age=")))
+                .andExpect(jsonPath("$.date").value("2024-10-02"))
+                .andExpect(jsonPath("$.rates.USD").value(70.5));
+    }
+
+    @Test
+    void testGetCurrencyRates_NotModified() throws Exception {
+        RateSnapshot snapshot = RateSnapshot.builder(LocalDate.of(2024, 10, 2))
+                .add("USD", 1, new BigDecimal("70.50"))
+                .build();
+        when(currencyService.getCurrentSnapshot()).thenReturn(snapshot);
+
+        mockMvc.perform(get("/currencies/rates").header("If-None-Match", "W/\"" + snapshot.getVersion() + "\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        verify(currencyService, never()).getCurrencyRates(any());
+    }
+}
@@ -1,25 +1,31 @@
 package com.example.currency_rates;
 
-import com.example.currency_rates.client.CBCurrencyResponse;
 import com.example.currency_rates.client.CurrencyClient;
+import com.example.currency_rates.client.RateSnapshot;
+import com.example.currency_rates.dto.ConvertCurrencyBatchResult;
 import com.example.currency_rates.dto.ConvertCurrencyRequest;
 import com.example.currency_rates.dto.ConvertCurrencyResponse;
 import com.example.currency_rates.dto.CurrencyRateResponse;
+import com.example.currency_rates.dto.CurrencyRatesResponse;
+import com.example.currency_rates.exception.CurrencyNotFoundException;
 import com.example.currency_rates.exception.InvalidRequestException;
 import com.example.currency_rates.mapper.CBCurrencyResponseToCurrencyRateResponseMapper;
+import com.example.currency_rates.services.ConversionMode;
 import com.example.currency_rates.services.CurrencyService;
+import com.example.currency_rates.services.RateHistoryService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.math.BigDecimal;
-import java.util.ArrayList;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 class CurrencyServiceTest {
 
@@ -29,19 +35,26 @@ class CurrencyServiceTest {
     @Mock
     private CBCurrencyResponseToCurrencyRateResponseMapper currencyMapper;
 
-    @InjectMocks
+    @Mock
+    private RateHistoryService rateHistoryService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
     private CurrencyService currencyService;
 
-    private List<CBCurrencyResponse> mockCurrencies;
+    private RateSnapshot mockCurrencies;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-
-        mockCurrencies = new ArrayList<>();
-        mockCurrencies.add(new CBCurrencyResponse("R01235", "840", "USD", 1, "Доллар США", "70.50"));
-        mockCurrencies.add(new CBCurrencyResponse("R01239", "978", "EUR", 1, "Евро", "82.30"));
-        mockCurrencies.add(new CBCurrencyResponse("R00000", "643", "RUB", 1, "Российский рубль", "1"));
+        currencyService = new CurrencyService(currencyClient, currencyMapper, objectMapper, ConversionMode.EXACT, rateHistoryService);
+
+        mockCurrencies = RateSnapshot.builder(LocalDate.of(2024, 10, 2))
+                .add("USD", 1, new BigDecimal("70.50"))
+                .add("EUR", 1, new BigDecimal("82.30"))
+                .add("RUB", 1, new BigDecimal("1"))
+                .add("JPY", 100, new BigDecimal("63.4567"))
+                .build();
     }
 
     @Test
@@ -61,6 +74,7 @@ class CurrencyServiceTest {
 
         InvalidRequestException exception = assertThrows(InvalidRequestException.class, () -> currencyService.getCurrencyRate("ABC"));
         assertEquals("Unsupported currency code - ABC", exception.getMessage());
+        verify(currencyClient, never()).getCurrencies();
     }
 
     @Test
@@ -102,6 +116,35 @@ class CurrencyServiceTest {
         assertEquals("85.66", response.getConvertedAmount()); // Убедитесь, что ожидаемое значение соответствует вашему расчету
     }
 
+    @Test
+    void testConvertCurrency_FetchesRatesOnce() {
+        ConvertCurrencyRequest request = new ConvertCurrencyRequest("USD", "EUR", new BigDecimal("100.00"));
+        when(currencyClient.getCurrencies()).thenReturn(mockCurrencies);
+
+        currencyService.convertCurrency(request);
+
+        verify(currencyClient, times(1)).getCurrencies();
+    }
+
+    @Test
+    void testConvertCurrency_CurrencyMissingFromSnapshot() {
+        ConvertCurrencyRequest request = new ConvertCurrencyRequest("RUB", "GBP", new BigDecimal("100.00"));
+        when(currencyClient.getCurrencies()).thenReturn(mockCurrencies);
+
+        CurrencyNotFoundException exception = assertThrows(CurrencyNotFoundException.class, () -> currencyService.convertCurrency(request));
+        assertEquals("Currency not found - GBP", exception.getMessage());
+    }
+
+    @Test
+    void testConvertCurrency_UsesNominalAdjustedRate() {
+        ConvertCurrencyRequest request = new ConvertCurrencyRequest("JPY", "RUB", new BigDecimal("1000"));
+        when(currencyClient.getCurrencies()).thenReturn(mockCurrencies);
+
+        ConvertCurrencyResponse response = currencyService.convertCurrency(request);
+
+        assertEquals("634.57", response.getConvertedAmount());
+    }
+
     @Test
     void testConvertCurrency_InvalidFromCurrency() {
         ConvertCurrencyRequest request = new ConvertCurrencyRequest("INVALID", "EUR", new BigDecimal("100.00"));
@@ -137,4 +180,99 @@ class CurrencyServiceTest {
         InvalidRequestException exception = assertThrows(InvalidRequestException.class, () -> currencyService.convertCurrency(request));
         assertEquals("Amount must be greater than 0", exception.getMessage());
     }
+
+    @Test
+    void testConvertCurrencies_ReturnsResultsInOrderWithPerItemErrors() {
+        when(currencyClient.getCurrencies()).thenReturn(mockCurrencies);
+
+        List<ConvertCurrencyBatchResult> results = currencyService.convertCurrencies(List.of(
+                new ConvertCurrencyRequest("USD", "RUB", new BigDecimal("50.00")),
+                new ConvertCurrencyRequest("RUB", "GBP", new BigDecimal("100.00")),
+                new ConvertCurrencyRequest("USD", "XXX1", new BigDecimal("1")),
+                new ConvertCurrencyRequest("USD", "EUR", new BigDecimal("100.00"))));
+
+        assertEquals(4, results.size());
+        assertEquals("3525.00", results.get(0).getResult().getConvertedAmount());
+        assertEquals(404, results.get(1).getError().getCode());
+        assertEquals(400, results.get(2).getError().getCode());
+        assertNull(results.get(2).getResult());
+        assertEquals("85.66", results.get(3).getResult().getConvertedAmount());
+        verify(currencyClient, times(1)).getCurrencies();
+    }
+
+    @Test
+    void testConvertCurrencies_RejectsEmptyBatch() {
+        assertThrows(InvalidRequestException.class, () -> currencyService.convertCurrencies(List.of()));
+        verifyNoInteractions(currencyClient);
+    }
+
+    @Test
+    void testGetCurrencyRates_BuildsResponseOncePerSnapshot() {
+        CurrencyRatesResponse first = currencyService.getCurrencyRates(mockCurrencies);
+
+        assertSame(first, currencyService.getCurrencyRates(mockCurrencies));
+        assertEquals(LocalDate.of(2024, 10, 2), first.getDate());
+        assertEquals(new BigDecimal("70.50"), first.getRates().get("USD"));
+        assertEquals(0, new BigDecimal("0.634567").compareTo(first.getRates().get("JPY")));
+    }
+
+    @Test
+    void testGetCurrencyRateJson_RendersOncePerSnapshot() throws Exception {
+        when(currencyClient.getCurrencies()).thenReturn(mockCurrencies);
+
+        byte[] usd = currencyService.getCurrencyRateJson("USD");
+
+        assertSame(usd, currencyService.getCurrencyRateJson("USD"));
+        assertEquals(new CurrencyRateResponse("USD", new BigDecimal("70.50")), objectMapper.readValue(usd, CurrencyRateResponse.class));
+        assertEquals(BigDecimal.ONE, objectMapper.readValue(currencyService.getCurrencyRateJson("RUB"), CurrencyRateResponse.class).getRate());
+        assertThrows(CurrencyNotFoundException.class, () -> currencyService.getCurrencyRateJson("GBP"));
+        assertThrows(InvalidRequestException.class, () -> currencyService.getCurrencyRateJson("ABCD"));
+    }
+
+    @Test
+    void testConvertCurrency_MatrixModesMatchExactConversion() {
+        when(currencyClient.getCurrencies()).thenReturn(mockCurrencies);
+        CurrencyService matrix = new CurrencyService(currencyClient, currencyMapper, objectMapper, ConversionMode.MATRIX, null);
+        CurrencyService matrixLong = new CurrencyService(currencyClient, currencyMapper, objectMapper, ConversionMode.MATRIX_LONG, null);
+
+        for (String[] pair : new String[][]{{"USD", "EUR"}, {"RUB", "USD"}, {"JPY", "RUB"}, {"EUR", "JPY"}, {"USD", "USD"}}) {
+            ConvertCurrencyRequest request = new ConvertCurrencyRequest(pair[0], pair[1], new BigDecimal("1234.56"));
+            String expected = currencyService.convertCurrency(request).getConvertedAmount();
+
+            assertEquals(expected, matrix.convertCurrency(request).getConvertedAmount(), pair[0] + "->" + pair[1]);
+            assertEquals(expected, matrixLong.convertCurrency(request).getConvertedAmount(), pair[0] + "->" + pair[1]);
+        }
+    }
+
+    @Test
+    void testConvertCurrency_MatrixLongFallsBackOnOverflow() {
+        when(currencyClient.getCurrencies()).thenReturn(mockCurrencies);
+        CurrencyService matrix = new CurrencyService(currencyClient, currencyMapper, objectMapper, ConversionMode.MATRIX, null);
+        CurrencyService matrixLong = new CurrencyService(currencyClient, currencyMapper, objectMapper, ConversionMode.MATRIX_LONG, null);
+        ConvertCurrencyRequest request = new ConvertCurrencyRequest("USD", "JPY", new BigDecimal("900000000000000"));
+
+        assertEquals(matrix.convertCurrency(request).getConvertedAmount(), matrixLong.convertCurrency(request).getConvertedAmount());
+        assertThrows(CurrencyNotFoundException.class,
+                () -> matrixLong.convertCurrency(new ConvertCurrencyRequest("USD", "GBP", BigDecimal.TEN)));
+    }
+
+    @Test
+    void testGetCurrencyRateJson_FromHistory() throws Exception {
+        LocalDate date = LocalDate.of(2024, 9, 2);
+        when(rateHistoryService.findRate("USD", date)).thenReturn(Optional.of(new BigDecimal("90.1")));
+
+        CurrencyRateResponse response = objectMapper.readValue(currencyService.getCurrencyRateJson("USD", date), CurrencyRateResponse.class);
+
+        assertEquals("USD", response.getCurrency());
+        assertEquals(new BigDecimal("90.1"), response.getRate());
+        verify(currencyClient, never()).getCurrencies();
+    }
+
+    @Test
+    void testGetCurrencyRateJson_NotInHistory() {
+        LocalDate date = LocalDate.of(2024, 9, 2);
+        when(rateHistoryService.findRate("USD", date)).thenReturn(Optional.empty());
+
+        assertThrows(CurrencyNotFoundException.class, () -> currencyService.getCurrencyRateJson("USD", date));
+    }
 }
@@ -1,18 +1,29 @@
 package com.example.currency_rates;
 import com.example.currency_rates.controller.EventController;
 import com.example.currency_rates.dto.EventResponse;
+import com.example.currency_rates.exception.GlobalExceptionHandler;
+import com.example.currency_rates.exception.InvalidRequestException;
+import com.example.currency_rates.exception.ServiceException;
 import com.example.currency_rates.services.EventService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.time.LocalDate;
 import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.mockito.Mockito.when;
 
 class EventControllerTest {
@@ -60,4 +71,32 @@ class EventControllerTest {
 
         assertThrows(RuntimeException.class, futureResponse::join);
     }
+
+    // Ошибка до начала потока должна уйти кодом и JSON-телом, хотя клиент принимает только NDJSON/SSE.
+    @Test
+    void streamEvents_ShouldReturnServiceUnavailable_WhenRatesAreUnavailable() throws Exception {
+        when(eventService.streamFilteredEvents(anyDouble(), eq("USD"), any(), any()))
+                .thenThrow(new ServiceException("ЦБ сервис недоступен, попробуйте позже"));
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(eventController).setControllerAdvice(new GlobalExceptionHandler()).build();
+
+        for (MediaType accept : new MediaType[]{MediaType.APPLICATION_NDJSON, MediaType.TEXT_EVENT_STREAM}) {
+            mockMvc.perform(get("/events/stream").param("budget", "1000").param("currency", "USD").accept(accept))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string("Retry-After", "3600"))
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(jsonPath("$.message").value("ЦБ сервис недоступен, попробуйте позже"));
+        }
+    }
+
+    @Test
+    void streamEvents_ShouldReturnBadRequest_WhenRangeIsInvalid() throws Exception {
+        when(eventService.streamFilteredEvents(anyDouble(), eq("USD"), any(), any()))
+                .thenThrow(new InvalidRequestException("Date range must not exceed 31 days"));
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(eventController).setControllerAdvice(new GlobalExceptionHandler()).build();
+
+        mockMvc.perform(get("/events/stream").param("budget", "1000").param("currency", "USD").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.message").value("Date range must not exceed 31 days"));
+    }
 }
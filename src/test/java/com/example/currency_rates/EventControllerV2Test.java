@@ -3,13 +3,20 @@ package com.example.currency_rates;
 import com.example.currency_rates.controller.EventControllerV2;
 import com.example.currency_rates.dto.Event;
 import com.example.currency_rates.dto.EventResponse;
+import com.example.currency_rates.exception.GlobalExceptionHandler;
+import com.example.currency_rates.exception.InvalidRequestException;
+import com.example.currency_rates.exception.ServiceException;
 import com.example.currency_rates.services.ReactiveEventService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDate;
@@ -17,6 +24,11 @@ import java.util.Collections;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.mockito.Mockito.*;
 
 class EventControllerV2Test {
@@ -39,7 +51,7 @@ class EventControllerV2Test {
         LocalDate dateFrom = LocalDate.now().minusDays(7);
         LocalDate dateTo = LocalDate.now();
 
-        Event event = new Event(1, "Event 1", false, "500", 500.0);
+        Event event = new Event(1, "Event 1", false, "500");
         EventResponse eventResponse = new EventResponse();
         eventResponse.setCount(1);
         eventResponse.setResults(Collections.singletonList(event));
@@ -86,4 +98,45 @@ class EventControllerV2Test {
         assertNotNull(responseEntity);
         assertEquals(400, responseEntity.getStatusCodeValue());
     }
-}
\ No newline at end of file
+
+    @Test
+    void streamEvents_ShouldDelegateToService() {
+        LocalDate dateFrom = LocalDate.now().minusDays(7);
+        LocalDate dateTo = LocalDate.now();
+        Event event = new Event(1, "Event 1", false, "500");
+
+        when(eventService.streamFilteredEvents(1000.0, "rub", dateFrom, dateTo)).thenReturn(Flux.just(event));
+
+        List<Event> events = eventController.streamEvents(1000.0, "rub", dateFrom, dateTo).collectList().block();
+
+        assertEquals(List.of(event), events);
+    }
+
+    // Ошибка до начала потока должна уйти кодом и JSON-телом, хотя клиент принимает только NDJSON/SSE.
+    @Test
+    void streamEvents_ShouldReturnServiceUnavailable_WhenRatesAreUnavailable() throws Exception {
+        when(eventService.streamFilteredEvents(anyDouble(), eq("USD"), any(), any()))
+                .thenThrow(new ServiceException("ЦБ сервис недоступен, попробуйте позже"));
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(eventController).setControllerAdvice(new GlobalExceptionHandler()).build();
+
+        for (MediaType accept : new MediaType[]{MediaType.APPLICATION_NDJSON, MediaType.TEXT_EVENT_STREAM}) {
+            mockMvc.perform(get("/events/v2/stream").param("budget", "1000").param("currency", "USD").accept(accept))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string("Retry-After", "3600"))
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(jsonPath("$.message").value("ЦБ сервис недоступен, попробуйте позже"));
+        }
+    }
+
+    @Test
+    void streamEvents_ShouldReturnBadRequest_WhenRangeIsInvalid() throws Exception {
+        when(eventService.streamFilteredEvents(anyDouble(), eq("USD"), any(), any()))
+                .thenThrow(new InvalidRequestException("Date range must not exceed 31 days"));
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(eventController).setControllerAdvice(new GlobalExceptionHandler()).build();
+
+        mockMvc.perform(get("/events/v2/stream").param("budget", "1000").param("currency", "USD").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.message").value("Date range must not exceed 31 days"));
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.currency_rates;
+
+import com.example.currency_rates.dto.Event;
+import com.example.currency_rates.services.EventPriceIndex;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventPriceIndexTest {
+
+    private final EventPriceIndex index = EventPriceIndex.of(List.of(
+            new Event(1, "Expensive", false, "3000"),
+            new Event(2, "Free", true, ""),
+            new Event(3, "Cheap", false, "500"),
+            new Event(4, "Unknown", false, "уточняйте"),
+            new Event(5, "Range", false, "от 1000 до 5000"),
+            new Event(6, "Same", false, "1000")));
+
+    @Test
+    void withinBudget_ShouldReturnFreeEventsAndAffordableSortedByPrice() {
+        List<Event> events = index.withinBudget(1000);
+
+        assertEquals(List.of(2, 3, 5, 6), events.stream().map(Event::getId).sorted().toList());
+        assertEquals(2, events.get(0).getId());
+        assertEquals(3, events.get(1).getId());
+        assertEquals(1000.0, events.get(3).getMinPrice());
+    }
+
+    @Test
+    void withinBudget_ShouldHandleBoundaries() {
+        assertEquals(List.of(2), index.withinBudget(100).stream().map(Event::getId).toList());
+        assertEquals(5, index.withinBudget(10_000).size());
+        assertEquals(1, index.withinBudget(Double.NaN).size());
+        assertEquals(6, index.size());
+    }
+
+    @Test
+    void withinBudget_ShouldReturnPricedPrefixWhenNoFreeEvents() {
+        EventPriceIndex paidOnly = EventPriceIndex.of(List.of(new Event(1, "A", false, "700"), new Event(2, "B", false, "200")));
+
+        assertEquals(List.of(2), paidOnly.withinBudget(500).stream().map(Event::getId).toList());
+        assertTrue(EventPriceIndex.of(List.of()).withinBudget(500).isEmpty());
+    }
+}
@@ -4,24 +4,32 @@ import com.example.currency_rates.client.EventsClient;
 import com.example.currency_rates.dto.CurrencyRateResponse;
 import com.example.currency_rates.dto.Event;
 import com.example.currency_rates.dto.EventResponse;
+import com.example.currency_rates.exception.InvalidRequestException;
 import com.example.currency_rates.exception.ServiceException;
 import com.example.currency_rates.services.CurrencyService;
 import com.example.currency_rates.services.EventService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import reactor.core.Disposable;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 
 class EventServiceTest {
@@ -32,12 +40,12 @@ class EventServiceTest {
     @Mock
     private CurrencyService currencyService;
 
-    @InjectMocks
     private EventService eventService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        eventService = new EventService(eventApi, currencyService, Runnable::run, Caffeine.newBuilder().buildAsync(), Caffeine.newBuilder().buildAsync(), 31);
     }
 
     @Test
@@ -47,15 +55,15 @@ class EventServiceTest {
         LocalDate dateFrom = LocalDate.now().minusDays(7);
         LocalDate dateTo = LocalDate.now();
 
-        Event event1 = new Event(1, "Event 1", false, "500", 500.0);
-        Event event2 = new Event(2, "Event 2", false, "2000", 2000.0);
+        Event event1 = new Event(1, "Event 1", false, "500");
+        Event event2 = new Event(2, "Event 2", false, "2000");
         List<Event> eventList = Arrays.asList(event1, event2);
 
         EventResponse eventResponse = new EventResponse();
         eventResponse.setCount(eventList.size());
         eventResponse.setResults(eventList);
 
-        when(eventApi.getEvents(any(Long.class), any(Long.class))).thenReturn(eventResponse);
+        when(eventApi.getEvents(any(Long.class), any(Long.class), anyInt())).thenReturn(eventResponse);
 
         CurrencyRateResponse currencyRateResponse = new CurrencyRateResponse();
         currencyRateResponse.setCurrency(currency);
@@ -75,7 +83,7 @@ class EventServiceTest {
         LocalDate dateFrom = LocalDate.now().minusDays(7);
         LocalDate dateTo = LocalDate.now();
 
-        when(eventApi.getEvents(any(Long.class), any(Long.class))).thenReturn(new EventResponse());
+        when(eventApi.getEvents(any(Long.class), any(Long.class), anyInt())).thenReturn(new EventResponse());
 
         CompletionException exception = assertThrows(CompletionException.class, () -> {
             eventService.getEvents(dateFrom, dateTo).join();
@@ -93,15 +101,15 @@ class EventServiceTest {
         LocalDate dateFrom = LocalDate.now().minusDays(7);
         LocalDate dateTo = LocalDate.now();
 
-        Event event1 = new Event(1, "Event 1", true, "0", 0.0);
-        Event event2 = new Event(2, "Event 2", false, "1500", 1500.0);
+        Event event1 = new Event(1, "Event 1", true, "0");
+        Event event2 = new Event(2, "Event 2", false, "1500");
         List<Event> eventList = Arrays.asList(event1, event2);
 
         EventResponse eventResponse = new EventResponse();
         eventResponse.setCount(eventList.size());
         eventResponse.setResults(eventList);
 
-        when(eventApi.getEvents(any(Long.class), any(Long.class))).thenReturn(eventResponse);
+        when(eventApi.getEvents(any(Long.class), any(Long.class), anyInt())).thenReturn(eventResponse);
 
         CurrencyRateResponse currencyRateResponse = new CurrencyRateResponse();
         currencyRateResponse.setCurrency(currency);
@@ -114,4 +122,123 @@ class EventServiceTest {
         EventResponse response = result.join();
         assertEquals(1, response.getCount());
     }
+
+    @Test
+    void getEvents_ShouldFetchRemainingPagesWhenResponseIsPaginated() {
+        LocalDate dateFrom = LocalDate.now().minusDays(1);
+        LocalDate dateTo = LocalDate.now();
+
+        when(eventApi.getPageSize()).thenReturn(2);
+        when(eventApi.getEvents(any(Long.class), any(Long.class), eq(1))).thenReturn(
+                new EventResponse(5, "page=2", null, List.of(new Event(1, "Event 1", false, "500"), new Event(2, "Event 2", false, "600"))));
+        when(eventApi.getEvents(any(Long.class), any(Long.class), eq(2))).thenReturn(
+                new EventResponse(5, "page=3", "page=1", List.of(new Event(3, "Event 3", false, "700"), new Event(4, "Event 4", false, "800"))));
+        when(eventApi.getEvents(any(Long.class), any(Long.class), eq(3))).thenReturn(
+                new EventResponse(5, null, "page=2", List.of(new Event(5, "Event 5", false, "900"))));
+
+        List<Event> events = eventService.getEvents(dateFrom, dateTo).join();
+
+        assertEquals(5, events.size());
+        assertEquals(900.0, events.get(4).getParsedPrice());
+        verify(eventApi, times(3)).getEvents(any(Long.class), any(Long.class), anyInt());
+    }
+
+    @Test
+    void getEvents_ShouldFetchOnlyDaysMissingFromCache() {
+        LocalDate today = LocalDate.now();
+        when(eventApi.getEvents(any(Long.class), any(Long.class), anyInt())).thenReturn(
+                new EventResponse(1, null, null, List.of(new Event(1, "Event 1", false, "500"))));
+
+        eventService.getEvents(today.minusDays(7), today).join();
+        verify(eventApi, times(7)).getEvents(any(Long.class), any(Long.class), anyInt());
+
+        List<Event> events = eventService.getEvents(today.minusDays(9), today.minusDays(2)).join();
+        verify(eventApi, times(9)).getEvents(any(Long.class), any(Long.class), anyInt());
+        assertEquals(1, events.size());
+    }
+
+    @Test
+    void event_ShouldParsePriceOnceWhenDeserialized() throws Exception {
+        Event event = new ObjectMapper().readValue("{\"id\":1,\"title\":\"Concert\",\"price\":\"от 300 до 700 рублей\"}", Event.class);
+
+        assertEquals(300.0, event.getMinPrice());
+        assertEquals(700.0, event.getMaxPrice());
+        assertFalse(Double.isNaN(event.getMinPrice()));
+        assertNull(new Event(2, "Unknown", false, "уточняйте").getParsedPrice());
+    }
+
+    @Test
+    void streamFilteredEvents_ShouldEmitEachMatchingEventOnce() {
+        LocalDate today = LocalDate.now();
+        when(eventApi.getEvents(any(Long.class), any(Long.class), anyInt())).thenReturn(
+                new EventResponse(2, null, null, List.of(new Event(1, "Event 1", false, "500"), new Event(2, "Event 2", false, "1500"))));
+        when(currencyService.getCurrencyRate("USD")).thenReturn(new CurrencyRateResponse("USD", BigDecimal.valueOf(10)));
+
+        List<Event> events = eventService.streamFilteredEvents(100, "USD", today.minusDays(3), today).collectList().block();
+
+        assertNotNull(events);
+        assertEquals(List.of(1), events.stream().map(Event::getId).toList());
+    }
+
+    @Test
+    void streamFilteredEvents_ShouldFail_WhenUpstreamFails() {
+        when(eventApi.getEvents(any(Long.class), any(Long.class), anyInt())).thenThrow(new RuntimeException("API error"));
+        when(currencyService.getCurrencyRate("RUB")).thenReturn(new CurrencyRateResponse("RUB", BigDecimal.ONE));
+
+        LocalDate today = LocalDate.now();
+        assertThrows(ServiceException.class,
+                () -> eventService.streamFilteredEvents(100, "RUB", today.minusDays(1), today).collectList().block());
+    }
+
+    @Test
+    void getFilteredEvents_ShouldRejectRangeLongerThanLimit() {
+        LocalDate dateFrom = LocalDate.of(2024, 1, 1);
+
+        assertThrows(InvalidRequestException.class,
+                () -> eventService.getFilteredEvents(1000.0, "RUB", dateFrom, dateFrom.plusDays(32)));
+        assertThrows(InvalidRequestException.class,
+                () -> eventService.streamFilteredEvents(1000.0, "RUB", dateFrom.plusDays(1), dateFrom));
+        verifyNoInteractions(eventApi);
+    }
+
+    @Test
+    void getFilteredEvents_ShouldRebuildIndexWhenDayBucketReloads() {
+        AsyncCache<LocalDate, List<Event>> dayCache = Caffeine.newBuilder().buildAsync();
+        eventService = new EventService(eventApi, currencyService, Runnable::run, dayCache, Caffeine.newBuilder().buildAsync(), 31);
+        LocalDate day = LocalDate.of(2024, 10, 1);
+
+        EventResponse before = new EventResponse();
+        before.setCount(1);
+        before.setResults(List.of(new Event(1, "Event 1", false, "500")));
+        EventResponse after = new EventResponse();
+        after.setCount(1);
+        after.setResults(List.of(new Event(2, "Event 2", false, "700")));
+        when(eventApi.getEvents(any(Long.class), any(Long.class), anyInt())).thenReturn(before, after);
+        when(currencyService.getCurrencyRate("RUB")).thenReturn(new CurrencyRateResponse("RUB", BigDecimal.ONE));
+
+        assertEquals(1, eventService.getFilteredEvents(1000.0, "RUB", day, day).join().getResults().get(0).getId());
+        dayCache.synchronous().invalidate(day);
+
+        assertEquals(2, eventService.getFilteredEvents(1000.0, "RUB", day, day).join().getResults().get(0).getId());
+    }
+
+    @Test
+    void streamFilteredEvents_ShouldStopEmittingAfterCancel() {
+        Queue<Runnable> background = new ArrayDeque<>();
+        eventService = new EventService(eventApi, currencyService, background::add,
+                Caffeine.newBuilder().buildAsync(), Caffeine.newBuilder().buildAsync(), 31);
+        LocalDate day = LocalDate.of(2024, 10, 1);
+        when(eventApi.getEvents(any(Long.class), any(Long.class), anyInt())).thenReturn(
+                new EventResponse(1, null, null, List.of(new Event(1, "Event 1", false, "500"))));
+        when(currencyService.getCurrencyRate("RUB")).thenReturn(new CurrencyRateResponse("RUB", BigDecimal.ONE));
+
+        List<Event> received = new ArrayList<>();
+        Disposable subscription = eventService.streamFilteredEvents(1000.0, "RUB", day, day).subscribe(received::add);
+        subscription.dispose();
+        while (!background.isEmpty()) {
+            background.poll().run();
+        }
+
+        assertTrue(received.isEmpty());
+    }
 }
@@ -6,7 +6,6 @@ import com.example.currency_rates.dto.Event;
 import com.example.currency_rates.dto.EventResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.web.client.RestTemplate;
@@ -29,7 +28,6 @@ class EventsClientTest {
     @Mock
     private KudaGoConfig kudaGoConfig;
 
-    @InjectMocks
     private EventsClient eventsClient;
 
     @BeforeEach
@@ -37,16 +35,18 @@ class EventsClientTest {
         MockitoAnnotations.openMocks(this);
         when(kudaGoConfig.getMaxConcurrentRequests()).thenReturn(8);
         when(kudaGoConfig.getEUrl()).thenReturn("https://kudago.com/public-api/v1.4/events/");
+        when(kudaGoConfig.getPageSize()).thenReturn(100);
+        eventsClient = new EventsClient(restTemplate, kudaGoConfig);
     }
 
     @Test
     void getEvents_ShouldRespectRateLimitWithMultipleThreads() throws InterruptedException {
         EventResponse mockResponse = new EventResponse();
         mockResponse.setCount(1);
-        mockResponse.setResults(List.of(new Event(1, "Event 1", false, "500", 500.0)));
+        mockResponse.setResults(List.of(new Event(1, "Event 1", false, "500")));
 
-        String expectedUrl = String.format("%s?fields=id,title,price&order_by=-price&text_format=plain&actual_since=%d&actual_until=%d",
-                "https://kudago.com/public-api/v1.4/events/", 1L, 2L);
+        String expectedUrl = String.format("%s?fields=id,title,price&order_by=-price&text_format=plain&actual_since=%d&actual_until=%d&page_size=%d&page=%d",
+                "https://kudago.com/public-api/v1.4/events/", 1L, 2L, 100, 1);
 
         when(restTemplate.getForObject(eq(expectedUrl), eq(EventResponse.class))).thenReturn(mockResponse);
 
@@ -58,7 +58,7 @@ class EventsClientTest {
         for (int i = 0; i < numberOfThreads; i++) {
             executorService.submit(() -> {
                 try {
-                    EventResponse response = eventsClient.getEvents(1L, 2L);
+                    EventResponse response = eventsClient.getEvents(1L, 2L, 1);
                     if (response != null) {
                         successfulRequests.incrementAndGet();
                     }
@@ -0,0 +1,77 @@
+package com.example.currency_rates;
+
+import com.example.currency_rates.client.CurrencyClient;
+import com.example.currency_rates.client.RateSnapshot;
+import com.example.currency_rates.dto.ConvertCurrencyRequest;
+import com.example.currency_rates.mapper.CBCurrencyResponseToCurrencyRateResponseMapper;
+import com.example.currency_rates.services.ConversionMode;
+import com.example.currency_rates.services.CurrencyService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Свойство: на любых положительных суммах и курсах с точностью ЦБ фиксированная точка
+ * даёт ту же строку, что и BigDecimal. Seed фиксирован, чтобы падение воспроизводилось.
+ */
+class FixedPointConversionTest {
+
+    private static final String[] CODES = {"RUB", "USD", "EUR", "JPY", "VND", "KWD", "HUF", "KZT"};
+    private static final int[] NOMINALS = {1, 1, 1, 100, 10000, 1, 100, 100};
+
+    @Test
+    void fixedPoint_ShouldMatchExactConversion() {
+        Random random = new Random(20241002L);
+        CurrencyClient currencyClient = mock(CurrencyClient.class);
+        CBCurrencyResponseToCurrencyRateResponseMapper mapper = mock(CBCurrencyResponseToCurrencyRateResponseMapper.class);
+        ObjectMapper objectMapper = new ObjectMapper();
+        CurrencyService exact = new CurrencyService(currencyClient, mapper, objectMapper, ConversionMode.EXACT, null);
+        CurrencyService fixedPoint = new CurrencyService(currencyClient, mapper, objectMapper, ConversionMode.FIXED_POINT, null);
+
+        for (int round = 0; round < 200; round++) {
+            RateSnapshot.Builder builder = RateSnapshot.builder(LocalDate.of(2024, 10, 2));
+            for (int i = 1; i < CODES.length; i++) {
+                // Курс ЦБ — до 4 знаков после запятой за номинал.
+                builder.add(CODES[i], NOMINALS[i], BigDecimal.valueOf(1 + random.nextInt(5_000_000), 4));
+            }
+            when(currencyClient.getCurrencies()).thenReturn(builder.build());
+
+            for (int i = 0; i < 100; i++) {
+                ConvertCurrencyRequest request = new ConvertCurrencyRequest(
+                        CODES[random.nextInt(CODES.length)], CODES[random.nextInt(CODES.length)], randomAmount(random));
+
+                assertEquals(exact.convertCurrency(request), fixedPoint.convertCurrency(request), request.toString());
+            }
+        }
+    }
+
+    @Test
+    void fixedPoint_ShouldFallBackToBigDecimalOnOverflow() {
+        CurrencyClient currencyClient = mock(CurrencyClient.class);
+        when(currencyClient.getCurrencies()).thenReturn(RateSnapshot.builder(LocalDate.of(2024, 10, 2))
+                .add("KWD", 1, new BigDecimal("316.1234"))
+                .add("VND", 10000, new BigDecimal("38.5678"))
+                .build());
+        ObjectMapper objectMapper = new ObjectMapper();
+        CurrencyService exact = new CurrencyService(currencyClient, null, objectMapper, ConversionMode.EXACT, null);
+        CurrencyService fixedPoint = new CurrencyService(currencyClient, null, objectMapper, ConversionMode.FIXED_POINT, null);
+
+        for (String amount : new String[]{"999999999999999999", "123456789012345.678901", "1E+3", "0.00000000000000000001"}) {
+            ConvertCurrencyRequest request = new ConvertCurrencyRequest("KWD", "VND", new BigDecimal(amount));
+            assertEquals(exact.convertCurrency(request), fixedPoint.convertCurrency(request), amount);
+        }
+    }
+
+    private static BigDecimal randomAmount(Random random) {
+        int scale = random.nextInt(7);
+        long unscaled = 1 + (long) (random.nextDouble() * Math.pow(10, 1 + random.nextInt(14)));
+        return BigDecimal.valueOf(unscaled, scale);
+    }
+}
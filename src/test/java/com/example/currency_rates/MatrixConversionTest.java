@@ -0,0 +1,74 @@
+package com.example.currency_rates;
+
+import com.example.currency_rates.client.CurrencyClient;
+import com.example.currency_rates.client.RateSnapshot;
+import com.example.currency_rates.dto.ConvertCurrencyRequest;
+import com.example.currency_rates.services.ConversionMode;
+import com.example.currency_rates.services.CurrencyService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Свойство: матрица кросс-курсов даёт ту же строку, что и точный расчёт, включая двойное округление
+ * частного до 4 знаков и потом до копеек. Seed фиксирован, чтобы падение воспроизводилось.
+ */
+class MatrixConversionTest {
+
+    private static final String[] CODES = {"RUB", "USD", "EUR", "JPY", "VND", "KWD", "HUF", "KZT"};
+    private static final int[] NOMINALS = {1, 1, 1, 100, 10000, 1, 100, 100};
+
+    @Test
+    void matrix_ShouldMatchExactConversion() {
+        Random random = new Random(20241017L);
+        CurrencyClient currencyClient = mock(CurrencyClient.class);
+        ObjectMapper objectMapper = new ObjectMapper();
+        CurrencyService exact = new CurrencyService(currencyClient, null, objectMapper, ConversionMode.EXACT, null);
+        CurrencyService matrix = new CurrencyService(currencyClient, null, objectMapper, ConversionMode.MATRIX, null);
+
+        for (int round = 0; round < 200; round++) {
+            RateSnapshot.Builder builder = RateSnapshot.builder(LocalDate.of(2024, 10, 2));
+            for (int i = 1; i < CODES.length; i++) {
+                // Курс ЦБ — до 4 знаков после запятой за номинал.
+                builder.add(CODES[i], NOMINALS[i], BigDecimal.valueOf(1 + random.nextInt(5_000_000), 4));
+            }
+            when(currencyClient.getCurrencies()).thenReturn(builder.build());
+
+            for (int i = 0; i < 100; i++) {
+                ConvertCurrencyRequest request = new ConvertCurrencyRequest(
+                        CODES[random.nextInt(CODES.length)], CODES[random.nextInt(CODES.length)], randomAmount(random));
+
+                assertEquals(exact.convertCurrency(request), matrix.convertCurrency(request), request.toString());
+            }
+        }
+    }
+
+    @Test
+    void matrix_ShouldRoundQuotientToFourPlacesBeforeCents() {
+        CurrencyClient currencyClient = mock(CurrencyClient.class);
+        when(currencyClient.getCurrencies()).thenReturn(RateSnapshot.builder(LocalDate.of(2024, 10, 2))
+                .add("USD", 1, new BigDecimal("100"))
+                .build());
+        ObjectMapper objectMapper = new ObjectMapper();
+        // 100.495 / 100 = 1.00495: до 4 знаков 1.0050, до копеек 1.01, а не 1.00.
+        ConvertCurrencyRequest request = new ConvertCurrencyRequest("RUB", "USD", new BigDecimal("100.495"));
+
+        for (ConversionMode mode : new ConversionMode[]{ConversionMode.EXACT, ConversionMode.MATRIX, ConversionMode.MATRIX_LONG}) {
+            CurrencyService service = new CurrencyService(currencyClient, null, objectMapper, mode, null);
+            assertEquals("1.01", service.convertCurrency(request).getConvertedAmount(), mode.name());
+        }
+    }
+
+    private static BigDecimal randomAmount(Random random) {
+        int scale = random.nextInt(7);
+        long unscaled = 1 + (long) (random.nextDouble() * Math.pow(10, 1 + random.nextInt(14)));
+        return BigDecimal.valueOf(unscaled, scale);
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.currency_rates;
+
+import com.example.currency_rates.util.PriceParser;
+import com.example.currency_rates.util.PriceRange;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriceParserTest {
+
+    @Test
+    void parse_ShouldReadSinglePrice() {
+        assertRange(500, 500, PriceParser.parse("500"));
+        assertRange(500, 500, PriceParser.parse("500 рублей"));
+        assertRange(350.5, 350.5, PriceParser.parse("билет 350,50 руб."));
+        assertRange(12.75, 12.75, PriceParser.parse("12.75"));
+    }
+
+    @Test
+    void parse_ShouldJoinThousandsGroups() {
+        assertRange(1500, 1500, PriceParser.parse("1 500 рублей"));
+        assertRange(10000000, 10000000, PriceParser.parse("10 000 000"));
+        assertRange(2500, 2500, PriceParser.parse("2 500 рублей"));
+    }
+
+    @Test
+    void parse_ShouldReadPriceRanges() {
+        assertRange(500, 1500, PriceParser.parse("от 500 до 1500 рублей"));
+        assertRange(500, 1500, PriceParser.parse("500–1500 руб."));
+        assertRange(1000, 3500, PriceParser.parse("от 1 000 до 3 500"));
+        assertRange(300, 300, PriceParser.parse("от 300 рублей"));
+    }
+
+    @Test
+    void parse_ShouldIgnoreUnrelatedSecondNumber() {
+        assertRange(500, 500, PriceParser.parse("500 рублей, детям 6+"));
+        assertRange(500, 500, PriceParser.parse("500 рублей, доступ 18+"));
+        assertRange(1500, 1500, PriceParser.parse("1500 - скидка 10"));
+    }
+
+    @Test
+    void parse_ShouldReturnUnknownWithoutDigits() {
+        assertFalse(PriceParser.parse(null).isKnown());
+        assertFalse(PriceParser.parse("").isKnown());
+        assertFalse(PriceParser.parse("бесплатно").isKnown());
+        assertFalse(PriceParser.parse(".,").isKnown());
+    }
+
+    private static void assertRange(double min, double max, PriceRange range) {
+        assertTrue(range.isKnown(), "price should be parsed");
+        assertEquals(min, range.getMin());
+        assertEquals(max, range.getMax());
+    }
+}
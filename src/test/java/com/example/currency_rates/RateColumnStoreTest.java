@@ -0,0 +1,73 @@
+package com.example.currency_rates;
+
+import com.example.currency_rates.client.RateSnapshot;
+import com.example.currency_rates.services.RateColumnStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateColumnStoreTest {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2024, 1, 1);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void put_ShouldSurviveReopen() {
+        Path file = dir.resolve("history/rates.bin");
+        RateColumnStore store = new RateColumnStore(file.toString(), FIRST_DAY, 366, 8);
+        store.put(LocalDate.of(2024, 10, 2), RateSnapshot.builder(LocalDate.of(2024, 10, 2))
+                .add("USD", 1, new BigDecimal("94.8700"))
+                .add("JPY", 100, new BigDecimal("65.4321"))
+                .build());
+        store.close();
+
+        RateColumnStore reopened = new RateColumnStore(file.toString(), FIRST_DAY, 366, 8);
+
+        assertEquals(LocalDate.of(2024, 10, 2), reopened.sourceDate(LocalDate.of(2024, 10, 2)));
+        assertNull(reopened.sourceDate(LocalDate.of(2024, 10, 3)));
+        assertEquals(new BigDecimal("94.87"), reopened.getRate("USD", LocalDate.of(2024, 10, 2)));
+        assertEquals(new BigDecimal("0.654321"), reopened.getRate("JPY", LocalDate.of(2024, 10, 2)));
+        assertNull(reopened.getRate("EUR", LocalDate.of(2024, 10, 2)));
+    }
+
+    @Test
+    void reopen_WithDifferentLayout_ShouldStartEmpty() {
+        Path file = dir.resolve("rates.bin");
+        RateColumnStore store = new RateColumnStore(file.toString(), FIRST_DAY, 366, 8);
+        store.put(FIRST_DAY, RateSnapshot.builder(FIRST_DAY).add("USD", 1, new BigDecimal("89.6883")).build());
+        store.close();
+
+        RateColumnStore reopened = new RateColumnStore(file.toString(), FIRST_DAY, 400, 8);
+
+        assertNull(reopened.sourceDate(FIRST_DAY));
+        assertNull(reopened.getRate("USD", FIRST_DAY));
+    }
+
+    @Test
+    void scan_ShouldSkipMissingDays() {
+        RateColumnStore store = new RateColumnStore("", FIRST_DAY, 366, 8);
+        store.put(LocalDate.of(2024, 3, 1), snapshot(LocalDate.of(2024, 3, 1), "91.00"));
+        store.put(LocalDate.of(2024, 3, 2), snapshot(LocalDate.of(2024, 3, 2), "93.00"));
+        store.put(LocalDate.of(2024, 3, 5), snapshot(LocalDate.of(2024, 3, 5), "92.50"));
+
+        RateColumnStore.RangeStats stats = store.scan("USD", LocalDate.of(2024, 2, 28), LocalDate.of(2024, 3, 6));
+
+        assertEquals(3, stats.count());
+        assertEquals(new BigDecimal("91"), stats.minRate());
+        assertEquals(new BigDecimal("93"), stats.maxRate());
+        assertEquals(new BigDecimal("92.1666666667"), stats.averageRate());
+        assertNull(store.scan("USD", LocalDate.of(2024, 4, 1), LocalDate.of(2024, 4, 30)));
+        assertThrows(IllegalArgumentException.class, () -> store.getRate("USD", LocalDate.of(2023, 12, 31)));
+    }
+
+    private static RateSnapshot snapshot(LocalDate date, String usd) {
+        return RateSnapshot.builder(date).add("USD", 1, new BigDecimal(usd)).build();
+    }
+}
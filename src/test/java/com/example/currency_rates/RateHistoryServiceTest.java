@@ -0,0 +1,150 @@
+package com.example.currency_rates;
+
+import com.example.currency_rates.client.CurrencyClient;
+import com.example.currency_rates.client.RateSnapshot;
+import com.example.currency_rates.client.RateSnapshotFetchedEvent;
+import com.example.currency_rates.exception.InvalidRequestException;
+import com.example.currency_rates.exception.ServiceException;
+import com.example.currency_rates.services.RateColumnStore;
+import com.example.currency_rates.services.RateHistoryService;
+import com.example.currency_rates.services.RateSeriesService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class RateHistoryServiceTest {
+
+    private static final LocalDate OCT_1 = LocalDate.of(2024, 10, 1);
+    private static final LocalDate OCT_3 = LocalDate.of(2024, 10, 3);
+
+    @Mock
+    private CurrencyClient currencyClient;
+
+    private RateColumnStore rateStore;
+    private RateHistoryService rateHistoryService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        rateStore = new RateColumnStore("", LocalDate.of(1992, 7, 1), 16384, 64);
+        rateHistoryService = new RateHistoryService(currencyClient, rateStore, Runnable::run, Duration.ofSeconds(5));
+    }
+
+    @Test
+    void onSnapshotFetched_ShouldServeDailySnapshotWithoutCbr() {
+        rateHistoryService.onSnapshotFetched(new RateSnapshotFetchedEvent(snapshot(OCT_1, "95.5")));
+
+        assertEquals(Optional.of(new BigDecimal("95.5")), rateHistoryService.findRate("USD", OCT_1));
+        assertEquals(Optional.of(new BigDecimal("0.6543")), rateHistoryService.findRate("JPY", OCT_1));
+        assertEquals(Optional.empty(), rateHistoryService.findRate("EUR", OCT_1));
+        verify(currencyClient, never()).fetchCurrencies(any(LocalDate.class));
+    }
+
+    @Test
+    void onSnapshotFetched_ShouldStoreDateOnce() {
+        rateHistoryService.onSnapshotFetched(new RateSnapshotFetchedEvent(snapshot(OCT_1, "95.5")));
+        rateHistoryService.onSnapshotFetched(new RateSnapshotFetchedEvent(snapshot(OCT_1, "96.5")));
+
+        assertEquals(Optional.of(new BigDecimal("95.5")), rateHistoryService.findRate("USD", OCT_1));
+    }
+
+    @Test
+    void findRate_ShouldLoadMissingDayOnce() {
+        // 05.10.2024 — суббота: ЦБ отдаёт выгрузку от 03.10, она и действует в этот день.
+        LocalDate saturday = OCT_3.plusDays(2);
+        when(currencyClient.fetchCurrencies(saturday)).thenReturn(snapshot(OCT_3, "97.5"));
+
+        assertEquals(Optional.of(new BigDecimal("97.5")), rateHistoryService.findRate("USD", saturday));
+        assertEquals(Optional.of(new BigDecimal("97.5")), rateHistoryService.findRate("USD", saturday));
+        assertEquals(OCT_3, rateStore.sourceDate(saturday));
+        verify(currencyClient, times(1)).fetchCurrencies(saturday);
+    }
+
+    @Test
+    void findRate_ShouldServeDaysLoadedForSeries() {
+        when(currencyClient.fetchCurrencies(OCT_1)).thenReturn(snapshot(OCT_1, "95.5"));
+        RateSeriesService rateSeriesService = new RateSeriesService(rateStore, rateHistoryService, 366);
+
+        rateSeriesService.getRateSeries("USD", OCT_1, OCT_1);
+
+        assertEquals(Optional.of(new BigDecimal("95.5")), rateHistoryService.findRate("USD", OCT_1));
+        verify(currencyClient, times(1)).fetchCurrencies(OCT_1);
+    }
+
+    @Test
+    void findRate_ShouldNotRememberFailedLoad() {
+        when(currencyClient.fetchCurrencies(OCT_1))
+                .thenThrow(new ServiceException("Ошибка при парсинге ответа от ЦБ РФ"))
+                .thenReturn(snapshot(OCT_1, "95.5"));
+
+        assertThrows(ServiceException.class, () -> rateHistoryService.findRate("USD", OCT_1));
+        assertEquals(Optional.of(new BigDecimal("95.5")), rateHistoryService.findRate("USD", OCT_1));
+    }
+
+    @Test
+    void await_ShouldFailOnFirstErrorAndCancelQueuedDays() {
+        Queue<Runnable> queued = new ArrayDeque<>();
+        RateHistoryService service = new RateHistoryService(currencyClient, rateStore, queued::add, Duration.ofSeconds(5));
+        when(currencyClient.fetchCurrencies(OCT_1)).thenThrow(new ServiceException("ЦБ сервис недоступен, попробуйте позже"));
+        List<CompletableFuture<Void>> loads = List.of(service.load(OCT_1), service.load(OCT_3));
+
+        queued.poll().run();
+        assertThrows(ServiceException.class, () -> service.await(loads));
+
+        // Загрузка, стоявшая в очереди, отменена и в ЦБ не ходит; следующий запрос дня начинает её заново.
+        queued.poll().run();
+        assertTrue(loads.get(1).isCancelled());
+        verify(currencyClient, never()).fetchCurrencies(OCT_3);
+        assertNotSame(loads.get(1), service.load(OCT_3));
+    }
+
+    @Test
+    void await_ShouldGiveUpAfterLoadTimeout() {
+        Queue<Runnable> queued = new ArrayDeque<>();
+        RateHistoryService service = new RateHistoryService(currencyClient, rateStore, queued::add, Duration.ofMillis(10));
+
+        assertThrows(ServiceException.class, () -> service.findRate("USD", OCT_1));
+
+        queued.poll().run();
+        verify(currencyClient, never()).fetchCurrencies(any(LocalDate.class));
+    }
+
+    @Test
+    void load_ShouldFailWhenHistoryQueueIsFull() {
+        RateHistoryService service = new RateHistoryService(currencyClient, rateStore, task -> {
+            throw new RejectedExecutionException("queue is full");
+        }, Duration.ofSeconds(5));
+
+        assertThrows(ServiceException.class, () -> service.findRate("USD", OCT_1));
+        verifyNoInteractions(currencyClient);
+    }
+
+    @Test
+    void findRate_ShouldRejectDateOutsideHistory() {
+        assertThrows(InvalidRequestException.class, () -> rateHistoryService.findRate("USD", LocalDate.now().plusDays(1)));
+        assertThrows(InvalidRequestException.class, () -> rateHistoryService.findRate("USD", LocalDate.of(1992, 6, 30)));
+        verifyNoInteractions(currencyClient);
+    }
+
+    private static RateSnapshot snapshot(LocalDate date, String usd) {
+        return RateSnapshot.builder(date)
+                .add("USD", 1, new BigDecimal(usd))
+                .add("JPY", 100, new BigDecimal("65.43"))
+                .build();
+    }
+}
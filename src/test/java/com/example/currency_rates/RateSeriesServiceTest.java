@@ -0,0 +1,109 @@
+package com.example.currency_rates;
+
+import com.example.currency_rates.client.CurrencyClient;
+import com.example.currency_rates.client.RateSnapshot;
+import com.example.currency_rates.dto.CurrencyRateSeriesResponse;
+import com.example.currency_rates.exception.InvalidRequestException;
+import com.example.currency_rates.exception.ServiceException;
+import com.example.currency_rates.services.RateColumnStore;
+import com.example.currency_rates.services.RateHistoryService;
+import com.example.currency_rates.services.RateSeriesService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class RateSeriesServiceTest {
+
+    @Mock
+    private CurrencyClient currencyClient;
+
+    private RateSeriesService rateSeriesService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        RateColumnStore rateStore = new RateColumnStore("", LocalDate.of(1992, 7, 1), 16384, 64);
+        rateSeriesService = new RateSeriesService(rateStore, new RateHistoryService(currencyClient, rateStore, Runnable::run, Duration.ofSeconds(5)), 366);
+    }
+
+    @Test
+    void getRateSeries_ShouldCollapseWeekendAndStorePastDays() {
+        // 28.09.2024 — суббота: на выходные ЦБ отдаёт ту же выгрузку.
+        RateSnapshot friday = snapshot(LocalDate.of(2024, 9, 28), "92.86");
+        when(currencyClient.fetchCurrencies(LocalDate.of(2024, 9, 27))).thenReturn(snapshot(LocalDate.of(2024, 9, 27), "92.71"));
+        when(currencyClient.fetchCurrencies(LocalDate.of(2024, 9, 28))).thenReturn(friday);
+        when(currencyClient.fetchCurrencies(LocalDate.of(2024, 9, 29))).thenReturn(friday);
+        when(currencyClient.fetchCurrencies(LocalDate.of(2024, 9, 30))).thenReturn(friday);
+
+        CurrencyRateSeriesResponse response = rateSeriesService.getRateSeries("USD", LocalDate.of(2024, 9, 27), LocalDate.of(2024, 9, 30));
+        rateSeriesService.getRateSeries("USD", LocalDate.of(2024, 9, 27), LocalDate.of(2024, 9, 30));
+
+        assertEquals(List.of(LocalDate.of(2024, 9, 27), LocalDate.of(2024, 9, 28)), response.getDates());
+        assertEquals(List.of(new BigDecimal("92.71"), new BigDecimal("92.86")), response.getRates());
+        assertEquals(new BigDecimal("92.71"), response.getMin());
+        assertEquals(new BigDecimal("92.86"), response.getMax());
+        assertEquals(new BigDecimal("92.8225"), response.getAverage());
+        verify(currencyClient, times(4)).fetchCurrencies(any(LocalDate.class));
+        verify(currencyClient, never()).getCurrencies();
+    }
+
+    @Test
+    void getRateSeries_ShouldRejectInvalidRange() {
+        assertThrows(InvalidRequestException.class,
+                () -> rateSeriesService.getRateSeries("USD", LocalDate.of(2024, 10, 2), LocalDate.of(2024, 10, 1)));
+        assertThrows(InvalidRequestException.class,
+                () -> rateSeriesService.getRateSeries("USD", LocalDate.of(2020, 1, 1), LocalDate.of(2024, 1, 1)));
+        verifyNoInteractions(currencyClient);
+    }
+
+    @Test
+    void getRateSeries_ShouldNotCacheFailedDays() {
+        LocalDate day = LocalDate.of(2024, 9, 27);
+        when(currencyClient.fetchCurrencies(day))
+                .thenThrow(new ServiceException("Ошибка при парсинге ответа от ЦБ РФ"))
+                .thenReturn(snapshot(day, "92.71"));
+
+        assertThrows(ServiceException.class, () -> rateSeriesService.getRateSeries("USD", day, day));
+        assertEquals(List.of(new BigDecimal("92.71")), rateSeriesService.getRateSeries("USD", day, day).getRates());
+    }
+
+    @Test
+    void getRateSeries_ShouldAnswerRubWithoutCallingCbr() {
+        CurrencyRateSeriesResponse response = rateSeriesService.getRateSeries("RUB", LocalDate.of(2024, 9, 1), LocalDate.of(2024, 9, 30));
+
+        assertEquals(List.of(LocalDate.of(2024, 9, 1)), response.getDates());
+        assertEquals(List.of(BigDecimal.ONE), response.getRates());
+        assertEquals(BigDecimal.ONE, response.getAverage());
+        verifyNoInteractions(currencyClient);
+    }
+
+    @Test
+    void getRateSeries_ShouldNotIncludeTomorrowsRatesPublishedToday() {
+        // После обеда ЦБ публикует курсы на завтра: текущий снимок датирован завтрашним днём.
+        LocalDate today = LocalDate.now();
+        when(currencyClient.getCurrencies()).thenReturn(snapshot(today.plusDays(1), "99.99"));
+        when(currencyClient.fetchCurrencies(today.minusDays(1))).thenReturn(snapshot(today.minusDays(1), "92.71"));
+        when(currencyClient.fetchCurrencies(today)).thenReturn(snapshot(today, "92.86"));
+
+        CurrencyRateSeriesResponse response = rateSeriesService.getRateSeries("USD", today.minusDays(1), today);
+
+        assertEquals(List.of(today.minusDays(1), today), response.getDates());
+        assertEquals(List.of(new BigDecimal("92.71"), new BigDecimal("92.86")), response.getRates());
+        assertEquals(new BigDecimal("92.86"), response.getMax());
+        verify(currencyClient, never()).getCurrencies();
+    }
+
+    private static RateSnapshot snapshot(LocalDate date, String usd) {
+        return RateSnapshot.builder(date).add("USD", 1, new BigDecimal(usd)).build();
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.currency_rates;
+
+import com.example.currency_rates.client.CurrencyClient;
+import com.example.currency_rates.client.RateSnapshot;
+import com.example.currency_rates.client.RateSnapshotCache;
+import com.example.currency_rates.client.RateSnapshotFetchedEvent;
+import com.example.currency_rates.config.CacheConfig;
+import com.example.currency_rates.exception.ServiceException;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateSnapshotCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private CaffeineCacheManager cacheManager;
+    private RateSnapshotCache snapshotCache;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new CaffeineCacheManager(CacheConfig.CURRENCY_CACHE);
+        snapshotCache = new RateSnapshotCache(cacheManager, meterRegistry, Duration.ofHours(72), Duration.ofMillis(10), Duration.ofMillis(20));
+    }
+
+    @Test
+    void seed_ShouldKeepNewerSnapshot() {
+        RateSnapshot older = snapshot(Instant.now().minus(Duration.ofHours(2)));
+        RateSnapshot newer = snapshot(Instant.now().minus(Duration.ofHours(1)));
+
+        assertTrue(snapshotCache.seed(newer));
+        assertFalse(snapshotCache.seed(older));
+
+        assertSame(newer, cacheManager.getCache(CacheConfig.CURRENCY_CACHE).get(SimpleKey.EMPTY).get());
+        assertSame(newer, snapshotCache.lastGood(Duration.ofDays(1)));
+    }
+
+    @Test
+    void seed_ShouldRejectSnapshotOlderThanMaxStale() {
+        RateSnapshot expired = snapshot(Instant.now().minus(Duration.ofHours(73)));
+
+        assertFalse(snapshotCache.seed(expired));
+
+        assertNull(cacheManager.getCache(CacheConfig.CURRENCY_CACHE).get(SimpleKey.EMPTY));
+        assertNull(snapshotCache.lastGood(Duration.ofDays(30)));
+    }
+
+    @Test
+    void seed_ShouldRetryRefreshUntilFirstFetch() {
+        List<Duration> delays = new ArrayList<>();
+        Queue<Runnable> retries = new ArrayDeque<>();
+        snapshotCache = new RateSnapshotCache(cacheManager, meterRegistry, Duration.ofHours(72), Duration.ofMillis(10), Duration.ofMillis(20),
+                delay -> command -> {
+                    delays.add(delay);
+                    retries.add(command);
+                });
+        RateSnapshot seed = snapshot(Instant.now().minus(Duration.ofHours(2)));
+        RateSnapshot fresh = snapshot(Instant.now());
+        AtomicInteger attempts = new AtomicInteger();
+        cacheManager.registerCustomCache(CacheConfig.CURRENCY_CACHE, Caffeine.newBuilder().executor(Runnable::run).build(key -> {
+            if (attempts.incrementAndGet() < 4) {
+                throw new ServiceException("ЦБ сервис недоступен, попробуйте позже");
+            }
+            snapshotCache.onSnapshotFetched(new RateSnapshotFetchedEvent(fresh));
+            return fresh;
+        }));
+
+        assertTrue(snapshotCache.seed(seed));
+        assertEquals(1, attempts.get());
+        assertSame(seed, cacheManager.getCache(CacheConfig.CURRENCY_CACHE).get(SimpleKey.EMPTY).get());
+
+        while (!retries.isEmpty()) {
+            retries.poll().run();
+        }
+
+        assertEquals(4, attempts.get());
+        // Пауза удваивается, но не превышает warm-retry.max; после удачной загрузки повторы прекращаются.
+        assertEquals(List.of(Duration.ofMillis(10), Duration.ofMillis(20), Duration.ofMillis(20)), delays);
+        assertSame(fresh, cacheManager.getCache(CacheConfig.CURRENCY_CACHE).get(SimpleKey.EMPTY).get());
+    }
+
+    @Test
+    void fallback_ShouldServeLastGoodSnapshotWithinMaxStale() {
+        RateSnapshot snapshot = snapshot(Instant.now().minus(Duration.ofHours(5)));
+        snapshotCache.onSnapshotFetched(new RateSnapshotFetchedEvent(snapshot));
+
+        CurrencyClient withinWindow = new CurrencyClient(null, null, null, null, snapshotCache, Duration.ofHours(6));
+        CurrencyClient pastWindow = new CurrencyClient(null, null, null, null, snapshotCache, Duration.ofHours(4));
+
+        assertSame(snapshot, withinWindow.fallbackGetCurrencies(new RuntimeException("timeout")));
+        assertThrows(ServiceException.class, () -> pastWindow.fallbackGetCurrencies(new RuntimeException("timeout")));
+        assertEquals(5 * 3600, meterRegistry.get("currency.rates.staleness").gauge().value(), 5);
+    }
+
+    @Test
+    void fallback_ShouldFailWithoutAnySnapshot() {
+        CurrencyClient client = new CurrencyClient(null, null, null, null, snapshotCache, Duration.ofHours(6));
+
+        assertThrows(ServiceException.class, () -> client.fallbackGetCurrencies(new RuntimeException("timeout")));
+        assertTrue(Double.isNaN(meterRegistry.get("currency.rates.staleness").gauge().value()));
+    }
+
+    private static RateSnapshot snapshot(Instant fetchedAt) {
+        return RateSnapshot.builder(LocalDate.of(2024, 10, 2))
+                .fetchedAt(fetchedAt)
+                .add("USD", 1, new BigDecimal("94.87"))
+                .build();
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.currency_rates;
+
+import com.example.currency_rates.client.RateSnapshot;
+import com.example.currency_rates.client.RateSnapshotStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateSnapshotStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void saveAndLoad_ShouldRestoreSameSnapshot() throws Exception {
+        RateSnapshot snapshot = RateSnapshot.builder(LocalDate.of(2024, 10, 2))
+                .fetchedAt(Instant.parse("2024-10-02T09:15:30.123Z"))
+                .add("USD", 1, new BigDecimal("94.8700"))
+                .add("JPY", 100, new BigDecimal("65.4321"))
+                .add("IDR", 10000, new BigDecimal("62.3912"))
+                .build();
+        Path file = dir.resolve("nested/rates.bin");
+
+        RateSnapshotStore.save(snapshot, file);
+        RateSnapshot loaded = RateSnapshotStore.load(file).orElseThrow();
+
+        assertEquals(snapshot.getVersion(), loaded.getVersion());
+        assertEquals(snapshot.getFetchedAt(), loaded.getFetchedAt());
+        assertEquals(0, new BigDecimal("0.654321").compareTo(loaded.getRate("JPY")));
+        assertEquals(100, loaded.getNominal(loaded.ordinalOf("JPY")));
+        try (var files = Files.list(file.getParent())) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void load_ShouldIgnoreForeignFile() throws Exception {
+        Path file = Files.write(dir.resolve("rates.bin"), new byte[]{1, 2, 3, 4});
+
+        assertTrue(RateSnapshotStore.load(file).isEmpty());
+    }
+}
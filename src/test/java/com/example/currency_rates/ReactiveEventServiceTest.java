@@ -1,6 +1,6 @@
 package com.example.currency_rates;
 
-import com.example.currency_rates.client.EventsClient;
+import com.example.currency_rates.client.ReactiveEventsClient;
 import com.example.currency_rates.dto.CurrencyRateResponse;
 import com.example.currency_rates.dto.Event;
 import com.example.currency_rates.dto.EventResponse;
@@ -22,12 +22,14 @@ import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 
 class ReactiveEventServiceTest {
 
     @Mock
-    private EventsClient eventApi;
+    private ReactiveEventsClient eventApi;
 
     @Mock
     private CurrencyService currencyService;
@@ -47,14 +49,14 @@ class ReactiveEventServiceTest {
         LocalDate dateFrom = LocalDate.now().minusDays(7);
         LocalDate dateTo = LocalDate.now();
 
-        Event event1 = new Event(1, "Event 1", false, "500", 500.0);
-        Event event2 = new Event(2, "Event 2", false, "1500", 1500.0);
+        Event event1 = new Event(1, "Event 1", false, "500");
+        Event event2 = new Event(2, "Event 2", false, "1500");
 
         EventResponse mockResponse = new EventResponse();
         mockResponse.setCount(1);
         mockResponse.setResults(Collections.singletonList(event1));
 
-        when(eventApi.getEvents(any(Long.class), any(Long.class))).thenReturn(mockResponse);
+        when(eventApi.getEvents(any(Long.class), any(Long.class), anyInt())).thenReturn(Mono.just(mockResponse));
         when(currencyService.getCurrencyRate(currency)).thenReturn(new CurrencyRateResponse(currency, BigDecimal.valueOf(1.0)));
 
         Mono<EventResponse> resultMono = reactiveEventService.getFilteredEvents(budget, currency, dateFrom, dateTo);
@@ -71,7 +73,7 @@ class ReactiveEventServiceTest {
         LocalDate dateFrom = LocalDate.now().minusDays(7);
         LocalDate dateTo = LocalDate.now();
 
-        when(eventApi.getEvents(any(Long.class), any(Long.class))).thenReturn(new EventResponse());
+        when(eventApi.getEvents(any(Long.class), any(Long.class), anyInt())).thenReturn(Mono.just(new EventResponse()));
         when(currencyService.getCurrencyRate(currency)).thenReturn(new CurrencyRateResponse(currency, BigDecimal.valueOf(1.0)));
 
         ServiceException exception = assertThrows(ServiceException.class, () -> {
@@ -88,15 +90,15 @@ class ReactiveEventServiceTest {
         LocalDate dateFrom = LocalDate.now().minusDays(7);
         LocalDate dateTo = LocalDate.now();
 
-        Event freeEvent = new Event(1, "Free Event", true, "0", 0.0);
-        Event paidEvent = new Event(2, "Paid Event", false, "1500", 1500.0);
+        Event freeEvent = new Event(1, "Free Event", true, "0");
+        Event paidEvent = new Event(2, "Paid Event", false, "1500");
         List<Event> eventList = Arrays.asList(freeEvent, paidEvent);
 
         EventResponse mockResponse = new EventResponse();
         mockResponse.setCount(eventList.size());
         mockResponse.setResults(eventList);
 
-        when(eventApi.getEvents(any(Long.class), any(Long.class))).thenReturn(mockResponse);
+        when(eventApi.getEvents(any(Long.class), any(Long.class), anyInt())).thenReturn(Mono.just(mockResponse));
         when(currencyService.getCurrencyRate(currency)).thenReturn(new CurrencyRateResponse(currency, BigDecimal.valueOf(1.0)));
 
         Mono<EventResponse> resultMono = reactiveEventService.getFilteredEvents(budget, currency, dateFrom, dateTo);
@@ -104,4 +106,67 @@ class ReactiveEventServiceTest {
 
         assertEquals(1, resultResponse.getCount());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getFilteredEvents_ShouldCollectAllPages() {
+        double budget = 1000.0;
+        String currency = "rub";
+        LocalDate dateFrom = LocalDate.now().minusDays(7);
+        LocalDate dateTo = LocalDate.now();
+
+        when(eventApi.getPageSize()).thenReturn(1);
+        when(eventApi.getMaxConcurrentRequests()).thenReturn(2);
+        when(eventApi.getEvents(any(Long.class), any(Long.class), eq(1))).thenReturn(
+                Mono.just(new EventResponse(3, "page=2", null, List.of(new Event(1, "Event 1", false, "500")))));
+        when(eventApi.getEvents(any(Long.class), any(Long.class), eq(2))).thenReturn(
+                Mono.just(new EventResponse(3, "page=3", "page=1", List.of(new Event(2, "Event 2", false, "1500")))));
+        when(eventApi.getEvents(any(Long.class), any(Long.class), eq(3))).thenReturn(
+                Mono.just(new EventResponse(3, null, "page=2", List.of(new Event(3, "Event 3", false, "900")))));
+        when(currencyService.getCurrencyRate(currency)).thenReturn(new CurrencyRateResponse(currency, BigDecimal.valueOf(1.0)));
+
+        EventResponse resultResponse = reactiveEventService.getFilteredEvents(budget, currency, dateFrom, dateTo).block();
+
+        assertNotNull(resultResponse);
+        assertEquals(2, resultResponse.getCount());
+    }
+
+    @Test
+    void streamFilteredEvents_ShouldEmitMatchingEventsPageByPage() {
+        String currency = "rub";
+        LocalDate dateFrom = LocalDate.now().minusDays(7);
+        LocalDate dateTo = LocalDate.now();
+
+        when(eventApi.getPageSize()).thenReturn(1);
+        when(eventApi.getMaxConcurrentRequests()).thenReturn(1);
+        when(eventApi.getEvents(any(Long.class), any(Long.class), eq(1))).thenReturn(
+                Mono.just(new EventResponse(2, "page=2", null, List.of(new Event(1, "Event 1", false, "500")))));
+        when(eventApi.getEvents(any(Long.class), any(Long.class), eq(2))).thenReturn(
+                Mono.just(new EventResponse(2, null, "page=1", List.of(new Event(2, "Event 2", false, "1500"), new Event(3, "Event 3", true, "")))));
+        when(currencyService.getCurrencyRate(currency)).thenReturn(new CurrencyRateResponse(currency, BigDecimal.valueOf(1.0)));
+
+        List<Event> events = reactiveEventService.streamFilteredEvents(1000.0, currency, dateFrom, dateTo).collectList().block();
+
+        assertNotNull(events);
+        assertEquals(List.of(1, 3), events.stream().map(Event::getId).toList());
+    }
+
+    @Test
+    void streamFilteredEvents_ShouldEmitEventRepeatedAcrossPagesOnce() {
+        String currency = "rub";
+        LocalDate dateFrom = LocalDate.now().minusDays(7);
+        LocalDate dateTo = LocalDate.now();
+
+        when(eventApi.getPageSize()).thenReturn(1);
+        when(eventApi.getMaxConcurrentRequests()).thenReturn(2);
+        when(eventApi.getEvents(any(Long.class), any(Long.class), eq(1))).thenReturn(
+                Mono.just(new EventResponse(2, "page=2", null, List.of(new Event(1, "Event 1", false, "500")))));
+        when(eventApi.getEvents(any(Long.class), any(Long.class), eq(2))).thenReturn(
+                Mono.just(new EventResponse(2, null, "page=1", List.of(new Event(1, "Event 1", false, "500")))));
+        when(currencyService.getCurrencyRate(currency)).thenReturn(new CurrencyRateResponse(currency, BigDecimal.valueOf(1.0)));
+
+        List<Event> events = reactiveEventService.streamFilteredEvents(1000.0, currency, dateFrom, dateTo).collectList().block();
+
+        assertNotNull(events);
+        assertEquals(List.of(1), events.stream().map(Event::getId).toList());
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.currency_rates;
+
+import com.example.currency_rates.client.ReactiveEventsClient;
+import com.example.currency_rates.config.KudaGoConfig;
+import com.example.currency_rates.dto.EventResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReactiveEventsClientTest {
+
+    private static final String BODY = "{\"count\":1,\"results\":[{\"id\":1,\"title\":\"Event 1\",\"price\":\"500\"}]}";
+
+    private KudaGoConfig kudaGoConfig;
+    private final List<ClientRequest> requests = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        kudaGoConfig = new KudaGoConfig();
+        kudaGoConfig.setMaxConcurrentRequests(1);
+        kudaGoConfig.setEUrl("https://kudago.com/public-api/v1.4/events/");
+        kudaGoConfig.setPageSize(100);
+    }
+
+    @Test
+    void getEvents_ShouldRequestKudaGoAndDecodeResponse() {
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    requests.add(request);
+                    return Mono.just(response());
+                })
+                .build();
+        ReactiveEventsClient client = new ReactiveEventsClient(webClient, kudaGoConfig);
+
+        EventResponse response = client.getEvents(1L, 2L, 1).block();
+
+        assertNotNull(response);
+        assertEquals(1, response.getCount());
+        assertEquals("Event 1", response.getResults().get(0).getTitle());
+        assertEquals("https://kudago.com/public-api/v1.4/events/?fields=id,title,price&order_by=-price&text_format=plain&actual_since=1&actual_until=2&page_size=100&page=1",
+                requests.get(0).url().toString());
+    }
+
+    @Test
+    void getEvents_ShouldQueueCallsAboveConcurrencyLimit() {
+        List<Sinks.One<ClientResponse>> upstream = new ArrayList<>();
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    Sinks.One<ClientResponse> sink = Sinks.one();
+                    upstream.add(sink);
+                    return sink.asMono();
+                })
+                .build();
+        ReactiveEventsClient client = new ReactiveEventsClient(webClient, kudaGoConfig);
+
+        List<EventResponse> results = new ArrayList<>();
+        client.getEvents(1L, 2L, 1).subscribe(results::add);
+        client.getEvents(1L, 2L, 2).subscribe(results::add);
+
+        assertEquals(1, upstream.size());
+
+        upstream.get(0).tryEmitValue(response());
+        assertEquals(2, upstream.size());
+
+        upstream.get(1).tryEmitValue(response());
+        assertEquals(2, results.size());
+    }
+
+    @Test
+    void getEvents_ShouldReturnPermitWhenQueuedCallIsCancelled() {
+        List<Sinks.One<ClientResponse>> upstream = new ArrayList<>();
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    Sinks.One<ClientResponse> sink = Sinks.one();
+                    upstream.add(sink);
+                    return sink.asMono();
+                })
+                .build();
+        ReactiveEventsClient client = new ReactiveEventsClient(webClient, kudaGoConfig);
+
+        Disposable first = client.getEvents(1L, 2L, 1).subscribe();
+        Disposable queued = client.getEvents(1L, 2L, 2).subscribe();
+        queued.dispose();
+        first.dispose();
+
+        client.getEvents(1L, 2L, 3).subscribe();
+        assertEquals(2, upstream.size());
+    }
+
+    private static ClientResponse response() {
+        return ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(BODY)
+                .build();
+    }
+}